@@ -5,6 +5,7 @@ import com.example.robotdelivery.mapper.RobotRepository;
 import com.example.robotdelivery.pojo.Robot;
 import com.example.robotdelivery.pojo.RobotInitFlag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,7 +25,8 @@ public class RobotInitializer {
     @Autowired
     private RobotInitFlagRepository flagRepository;
 
-    private static final int TARGET_ROBOT_COUNT = 4;
+    @Value("${robot.fleet.size:4}")
+    private int fleetSize; // 启动时的机器人编队规模
     private volatile boolean initialized = false;
 
     @Transactional(isolation = Isolation.SERIALIZABLE)
@@ -76,8 +78,8 @@ public class RobotInitializer {
                 System.out.println("[RobotInitializer] 数据库中现有机器人数量：" + existingRobots.size());
 
                 // 补充不足的机器人
-                if (existingRobots.size() < TARGET_ROBOT_COUNT) {
-                    int need = TARGET_ROBOT_COUNT - existingRobots.size();
+                if (existingRobots.size() < fleetSize) {
+                    int need = fleetSize - existingRobots.size();
                     System.out.println("[RobotInitializer] 机器人数量不足，需补充：" + need + "个");
                     for (int i = 0; i < need; i++) {
                         Robot robot = new Robot();
@@ -102,11 +104,11 @@ public class RobotInitializer {
 
                 List<Robot> finalRobots = loadFinalRobots();
                 initialized = true;
-                System.out.println("[RobotInitializer] 初始化完成，返回前4个机器人：" + finalRobots.stream().map(Robot::getRobotId).collect(Collectors.toList()));
+                System.out.println("[RobotInitializer] 初始化完成，返回全部" + finalRobots.size() + "个机器人：" + finalRobots.stream().map(Robot::getRobotId).collect(Collectors.toList()));
                 return finalRobots;
             }
 
-            // 3. 未初始化：创建4个新机器人
+            // 3. 未初始化：按编队规模创建新机器人
             System.out.println("[RobotInitializer] 标记为未初始化，开始创建新机器人");
             try {
                 long count = robotRepository.count();
@@ -120,9 +122,9 @@ public class RobotInitializer {
                 e.printStackTrace();
             }
 
-            // 创建4个新机器人
+            // 按编队规模创建新机器人
             List<Robot> newRobots = new ArrayList<>();
-            for (int i = 0; i < TARGET_ROBOT_COUNT; i++) {
+            for (int i = 0; i < fleetSize; i++) {
                 Robot robot = new Robot();
                 robot.setRobotStatus(Robot.STATUS_FREE); // 明确赋值为0（空闲）
                 robot.setFinishedOrders(0);
@@ -133,7 +135,7 @@ public class RobotInitializer {
             }
 
             List<Robot> savedRobots = robotRepository.saveAll(newRobots);
-            System.out.println("[RobotInitializer] 4个新机器人创建成功，ID：" +
+            System.out.println("[RobotInitializer] " + savedRobots.size() + "个新机器人创建成功，ID：" +
                     savedRobots.stream().map(Robot::getRobotId).collect(Collectors.toList()));
 
             // 4. 更新标记为已初始化
@@ -148,18 +150,16 @@ public class RobotInitializer {
         }
     }
 
-    // 加载并排序前4个机器人（带日志）
+    // 加载并排序全部已登记的机器人（含运行中通过 RobotFleetService 新增的；fleetSize 只决定启动时至少有几个）
     private List<Robot> loadFinalRobots() {
-        System.out.println("[RobotInitializer] 开始加载前4个机器人");
+        System.out.println("[RobotInitializer] 开始加载全部机器人");
         List<Robot> allRobots = robotRepository.findAll();
-        System.out.println("[RobotInitializer] 数据库中所有机器人数量：" + allRobots.size());
 
         List<Robot> finalRobots = allRobots.stream()
                 .sorted(Comparator.comparingInt(Robot::getRobotId))
-                .limit(TARGET_ROBOT_COUNT)
                 .collect(Collectors.toList());
 
-        System.out.println("[RobotInitializer] 加载前4个机器人完成，ID：" +
+        System.out.println("[RobotInitializer] 加载" + finalRobots.size() + "个机器人完成，ID：" +
                 finalRobots.stream().map(Robot::getRobotId).collect(Collectors.toList()));
         return finalRobots;
     }
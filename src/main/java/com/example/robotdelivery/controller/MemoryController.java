@@ -4,7 +4,6 @@ import com.example.robotdelivery.pojo.Dish;
 import com.example.robotdelivery.pojo.vo.MemoryVO;
 import com.example.robotdelivery.pojo.vo.WorkstationVo;
 import com.example.robotdelivery.service.IOrderService;
-import com.example.robotdelivery.service.MemoryManager;
 import com.example.robotdelivery.service.MemoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -17,8 +16,6 @@ import java.util.List;
 public class MemoryController {
 
     private final MemoryService memoryService;
-    @Autowired
-    private MemoryManager memoryManager;
 
     @Autowired
     public MemoryController(MemoryService memoryService) {
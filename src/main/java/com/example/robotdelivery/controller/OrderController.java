@@ -3,12 +3,16 @@ package com.example.robotdelivery.controller;
 import com.example.robotdelivery.pojo.dto.OrderDto;
 import com.example.robotdelivery.pojo.vo.OrderVO;
 import com.example.robotdelivery.service.IOrderService;
+import com.example.robotdelivery.service.OrderSchedulingService;
+import com.example.robotdelivery.service.ResourceManagerThread;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 订单控制器：提供前端所需的订单查询、创建接口，统一返回 OrderVO（前端展示专用）
@@ -20,6 +24,12 @@ public class OrderController {
     @Autowired
     private IOrderService orderService;
 
+    @Autowired
+    private OrderSchedulingService orderSchedulingService;
+
+    @Autowired
+    private ResourceManagerThread resourceManagerThread; // 切换调度策略时重排等待队列
+
     /**
      * 1. 创建新订单
      * 前端调用：POST /api/orders
@@ -98,6 +108,32 @@ public class OrderController {
         }
     }
 
+    /**
+     * 5. 查询订单调度策略（当前策略与全部可用策略）
+     * 前端调用：GET /api/orders/scheduling
+     */
+    @GetMapping("/scheduling")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSchedulingPolicy() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("active", orderSchedulingService.getActivePolicyName());
+        data.put("policies", orderSchedulingService.getPolicyNames());
+        return ResponseEntity.ok(new ApiResponse<>(200, "查询调度策略成功", data));
+    }
+
+    /**
+     * 6. 运行时切换订单调度策略：priority / mlfq / sjf / srtf / edf
+     * 前端调用：PUT /api/orders/scheduling/sjf
+     */
+    @PutMapping("/scheduling/{policy}")
+    public ResponseEntity<ApiResponse<Void>> switchSchedulingPolicy(@PathVariable String policy) {
+        try {
+            resourceManagerThread.switchSchedulingPolicy(policy);
+            return ResponseEntity.ok(new ApiResponse<>(200, "订单调度策略已切换为：" + policy, null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400, e.getMessage(), null));
+        }
+    }
+
     /**
      * 统一响应格式类（内部静态类，避免前端处理不同格式的响应）
      *
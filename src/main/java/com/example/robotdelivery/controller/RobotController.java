@@ -1,11 +1,20 @@
 package com.example.robotdelivery.controller;
 
+import com.example.robotdelivery.pojo.Robot;
 import com.example.robotdelivery.pojo.dto.RobotDto;
+import com.example.robotdelivery.pojo.vo.RobotSelectionStatsVO;
 import com.example.robotdelivery.service.IRobotService;
+import com.example.robotdelivery.service.RobotFleetService;
+import com.example.robotdelivery.service.RobotSelectionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import java.util.List;
 
@@ -16,6 +25,12 @@ public class RobotController {
     @Autowired
     private IRobotService robotService;
 
+    @Autowired
+    private RobotSelectionService robotSelectionService;
+
+    @Autowired
+    private RobotFleetService robotFleetService;
+
     @GetMapping
     public List<RobotDto> getAllRobots() {
         return robotService.getAllRobots();
@@ -25,4 +40,51 @@ public class RobotController {
     public RobotDto getRobotById(@PathVariable Integer id) {
         return robotService.getRobotById(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * POST /api/robots?location=0
+     * 运行中注册一个新机器人，立即参与调度
+     */
+    @PostMapping
+    public RobotDto registerRobot(@RequestParam(required = false) Integer location) {
+        Robot robot = robotFleetService.registerRobot(location);
+        return RobotDto.fromEntity(robot);
+    }
+
+    /**
+     * DELETE /api/robots/{id}
+     * 注销机器人：空闲的立即移除，忙碌的完成当前订单后移除
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> deregisterRobot(@PathVariable Integer id) {
+        try {
+            boolean removed = robotFleetService.deregisterRobot(id);
+            return ResponseEntity.ok(removed ? "机器人" + id + "已注销" : "机器人" + id + "正在工作，完成当前订单后注销");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/robots/selection
+     * 各机器人选择策略的统计（选择次数、延迟分布、makespan），含当前生效策略
+     */
+    @GetMapping("/selection")
+    public List<RobotSelectionStatsVO> getSelectionStats() {
+        return robotSelectionService.getStats();
+    }
+
+    /**
+     * PUT /api/robots/selection/{strategy}
+     * 运行时切换机器人选择策略：random / round-robin / least-loaded / location-affinity
+     */
+    @PutMapping("/selection/{strategy}")
+    public ResponseEntity<String> switchSelectionStrategy(@PathVariable String strategy) {
+        try {
+            robotSelectionService.switchStrategy(strategy);
+            return ResponseEntity.ok("机器人选择策略已切换为：" + strategy);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
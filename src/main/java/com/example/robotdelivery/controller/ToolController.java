@@ -5,8 +5,12 @@ import com.example.robotdelivery.service.ToolService;
 import com.example.robotdelivery.pojo.vo.ToolVo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -38,4 +42,37 @@ public class ToolController {
         // 3. 返回响应
         return ResponseEntity.ok(toolVos);
     }
+
+    /**
+     * 运行中新增工具
+     * 前端访问路径: POST /api/tools/{type}?count=1 （type: OVEN / FRY_PAN / FRY_POT）
+     * 返回结构: 新增工具的 List<ToolVo>
+     */
+    @PostMapping("/{type}")
+    public ResponseEntity<?> addTools(@PathVariable String type,
+                                      @RequestParam(defaultValue = "1") int count) {
+        try {
+            Tools.ToolType toolType = Tools.ToolType.valueOf(type.toUpperCase());
+            List<ToolVo> added = toolService.addTools(toolType, count).stream()
+                    .map(ToolVo::fromTools)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(added);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * 退役工具：空闲的立即移除，正在使用的归还后移除
+     * 前端访问路径: DELETE /api/tools/{toolId}
+     */
+    @DeleteMapping("/{toolId}")
+    public ResponseEntity<String> retireTool(@PathVariable Integer toolId) {
+        try {
+            boolean removed = toolService.retireTool(toolId);
+            return ResponseEntity.ok(removed ? "工具" + toolId + "已退役" : "工具" + toolId + "正在使用，归还后退役");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -1,23 +1,31 @@
 package com.example.robotdelivery.pojo;
 
-import org.springframework.stereotype.Component;
-import java.util.ArrayList;
-import java.util.List;
-
-@Component
+/**
+ * 单个工作台（由 WorkbenchRegistry 按配置创建多个，各自配一个 MemoryManager）
+ */
 public class Memory {
 
-    private final Integer workbenchId = 1;
-    private final Integer totalSpace = 100;
+    private final Integer workbenchId;
+    private final Integer baseAddress;  // 在全局地址空间中的起始地址（各工作台首尾相接）
+    private final Integer totalSpace;
     private volatile Integer usedSpace = 0;
     private volatile Integer occupiedByRobotId;
-    private List<Partition> partitions = new ArrayList<>();  // 新增分区列表
+
+    public Memory(int workbenchId, int baseAddress, int totalSpace) {
+        this.workbenchId = workbenchId;
+        this.baseAddress = baseAddress;
+        this.totalSpace = totalSpace;
+    }
 
     // Getter和Setter方法
     public Integer getWorkbenchId() {
         return workbenchId;
     }
 
+    public Integer getBaseAddress() {
+        return baseAddress;
+    }
+
     public Integer getTotalSpace() {
         return totalSpace;
     }
@@ -41,13 +49,4 @@ public class Memory {
     public synchronized Integer getFreeSpace() {
         return totalSpace - usedSpace;
     }
-
-    // 新增分区列表的Getter和Setter
-    public List<Partition> getPartitions() {
-        return partitions;
-    }
-
-    public void setPartitions(List<Partition> partitions) {
-        this.partitions = partitions;
-    }
 }
\ No newline at end of file
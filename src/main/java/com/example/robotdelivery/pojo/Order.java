@@ -42,6 +42,14 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus orderStatus;
 
+    // 等待队列排序键（由当前调度策略在入队时计算，不持久化）
+    @Transient
+    private Long queueKey;
+
+    // 被银行家检查拒绝的次数（多级反馈队列据此降级，不持久化）
+    @Transient
+    private int rejections;
+
     // ================= Getters / Setters =================
     public Integer getOrderId() { return orderId; }
     public void setOrderId(Integer orderId) { this.orderId = orderId; }
@@ -64,6 +72,13 @@ public class Order {
     public OrderStatus getOrderStatus() { return orderStatus; }
     public void setOrderStatus(OrderStatus orderStatus) { this.orderStatus = orderStatus; }
 
+    public Long getQueueKey() { return queueKey; }
+    public void setQueueKey(Long queueKey) { this.queueKey = queueKey; }
+
+    public int getRejections() { return rejections; }
+    public void setRejections(int rejections) { this.rejections = rejections; }
+
+
     @Override
     public String toString() {
         return "Order{" +
@@ -1,5 +1,7 @@
 package com.example.robotdelivery.pojo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class Partition {
     private int id;                 // 分区ID
     private int size;               // 分区大小
@@ -7,6 +9,11 @@ public class Partition {
     private boolean isAllocated;    // 是否已分配
     private int orderId;            // 若已分配，存储订单ID（原dishId修改为orderId）
     private String dishName;        // 若已分配，存储菜肴名称
+    private int workbenchId = 1;    // 所属工作台ID（多工作台时区分分区归属）
+    private boolean reserved;       // 为排队中的订单预留（已占用空间，订单尚未开始处理）
+    // 按地址相邻的前后分区（双向链表，由分配器维护，释放时 O(1) 找到相邻块合并；不参与序列化）
+    private Partition prev;
+    private Partition next;
 
     public Partition(int id, int size, int startAddress) {
         this.id = id;
@@ -29,12 +36,22 @@ public class Partition {
     public void setOrderId(int orderId) { this.orderId = orderId; }  // 原setDishId修改为setOrderId
     public String getDishName() { return dishName; }
     public void setDishName(String dishName) { this.dishName = dishName; }
+    public int getWorkbenchId() { return workbenchId; }
+    public void setWorkbenchId(int workbenchId) { this.workbenchId = workbenchId; }
+    public boolean isReserved() { return reserved; }
+    public void setReserved(boolean reserved) { this.reserved = reserved; }
+    @JsonIgnore
+    public Partition getPrev() { return prev; }
+    public void setPrev(Partition prev) { this.prev = prev; }
+    @JsonIgnore
+    public Partition getNext() { return next; }
+    public void setNext(Partition next) { this.next = next; }
 
     @Override
     public String toString() {
         if (isAllocated) {
-            return String.format("分区 %d [起始地址: %d, 大小: %d, 状态: 已分配, 订单ID: %d, 菜肴: %s]",
-                    id, startAddress, size, orderId, dishName);
+            return String.format("分区 %d [起始地址: %d, 大小: %d, 状态: %s, 订单ID: %d, 菜肴: %s]",
+                    id, startAddress, size, reserved ? "已预留" : "已分配", orderId, dishName);
         } else {
             return String.format("分区 %d [起始地址: %d, 大小: %d, 状态: 未分配]",
                     id, startAddress, size);
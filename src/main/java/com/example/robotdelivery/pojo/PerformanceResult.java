@@ -11,9 +11,12 @@ public class PerformanceResult {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id; // 自增主键
 
-    @Column(name = "mode_type") // 1=算法模式，2=默认模式
+    @Column(name = "mode_type") // 1=算法模式，2=默认模式，3=算法模式下单个订单调度策略
     private Integer modeType;
 
+    @Column(name = "policy_name") // 订单调度策略名称（仅 mode_type=3）
+    private String policyName;
+
     @Column(name = "completed_count") // 完成订单数
     private Integer completedCount;
 
@@ -45,6 +48,14 @@ public class PerformanceResult {
         this.modeType = modeType;
     }
 
+    public String getPolicyName() {
+        return policyName;
+    }
+
+    public void setPolicyName(String policyName) {
+        this.policyName = policyName;
+    }
+
     public Integer getCompletedCount() {
         return completedCount;
     }
@@ -1,6 +1,6 @@
 package com.example.robotdelivery.pojo;
 
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Tools
 {
@@ -13,9 +13,13 @@ public class Tools
     private Integer toolId; // 工具ID
     //private String toolName; // 工具名称，**改为了toolType，使用枚举
     private ToolType toolType; // 工具类型
-    private Integer toolStatus = 0; // 当前占用状态，0表示空闲，>0表示被对应机器人占用
-     private Integer occupiedByRobotId; // 绑定机器人（核心单元，非订单）
-    private final ReentrantLock lock = new ReentrantLock(); // 工具锁，保证线程安全
+    // 占用者：0 表示空闲，>0 表示占用它的机器人ID，-1 表示被占用但占用者未知
+    // toolStatus / occupiedByRobotId 均由它派生，占用与归还通过 CAS 完成，任意线程均可调用
+    private final AtomicInteger owner = new AtomicInteger(FREE_OWNER);
+    private static final int FREE_OWNER = 0;
+    private static final int UNKNOWN_OWNER = -1;
+    private int poolSlot = -1; // 在 ToolManager 空闲池中的槽位（内部使用）
+    private volatile boolean retired = false; // 已退役：归还后不再回到空闲池
   
      // 常量：状态定义
     public static final Integer STATUS_FREE = 0;
@@ -23,7 +27,7 @@ public class Tools
 
     public void setToolStatus(int x)
     {
-        this.toolStatus=x;
+        setToolStatus(Integer.valueOf(x));
     }
 
 
@@ -53,25 +57,16 @@ public class Tools
 // >>>>>>> main
 //     }
 
-    // 尝试占用工具，成功返回true，失败返回false
+    // 尝试占用工具（空闲 → robotId），成功返回true，失败返回false
     public boolean acquire(Integer robotId)
     {
-        if (lock.tryLock())
-        {
-            this.toolStatus = robotId;
-            return true;
-        }
-        return false;
+        return owner.compareAndSet(FREE_OWNER, robotId);
     }
 
-    // 释放工具，仅占用者可以释放
-    public void release(Integer robotId)
+    // 释放工具，仅占用者可以释放（可在任意线程调用，如烹饪完成线程）
+    public boolean release(Integer robotId)
     {
-        if (lock.isHeldByCurrentThread() && this.toolStatus.equals(robotId))
-        {
-            this.toolStatus = 0;
-            lock.unlock();
-        }
+        return robotId != null && owner.compareAndSet(robotId, FREE_OWNER);
     }
 
     public ToolType getToolType() {
@@ -83,18 +78,41 @@ public class Tools
     }
 
     public Integer getToolStatus() {
-        return toolStatus;
+        return owner.get() == FREE_OWNER ? STATUS_FREE : STATUS_OCCUPIED;
     }
 
+    // 兼容旧调用：置为空闲即清除占用者；置为占用时若尚无占用者，记为未知占用者
     public void setToolStatus(Integer toolStatus) {
-        this.toolStatus = toolStatus;
+        if (STATUS_FREE.equals(toolStatus)) {
+            owner.set(FREE_OWNER);
+        } else {
+            owner.compareAndSet(FREE_OWNER, UNKNOWN_OWNER);
+        }
     }
 
     public Integer getOccupiedByRobotId() {
-        return occupiedByRobotId;
+        int current = owner.get();
+        return current > 0 ? current : null;
     }
 
     public void setOccupiedByRobotId(Integer occupiedByRobotId) {
-        this.occupiedByRobotId = occupiedByRobotId;
+        owner.set(occupiedByRobotId == null ? FREE_OWNER : occupiedByRobotId);
+    }
+
+    public boolean isRetired() {
+        return retired;
+    }
+
+    public void setRetired(boolean retired) {
+        this.retired = retired;
+    }
+
+    public int getPoolSlot() {
+        return poolSlot;
     }
+
+    public void setPoolSlot(int poolSlot) {
+        this.poolSlot = poolSlot;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.example.robotdelivery.pojo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 工作台状态的不可变快照：由 MemoryManager 在每次分配/释放/整理后整体发布
+ * 每次变更只发布计数（O(1)）；分区表副本在首次读取时才生成（MemoryManager.getSnapshot），同一版本只复制一次
+ * 读取方（HTTP 查询等）拿到的是某一版本的完整状态，不加锁也不会看到写到一半的分区表
+ */
+public final class WorkbenchSnapshot {
+    private final long version;              // 快照版本号（每次发布自增）
+    private final int workbenchId;
+    private final int totalSpace;
+    private final int usedSpace;
+    private final int largestFreeBlock;
+    private final long fragmentationFailures;
+    private final List<Partition> partitions; // 分区副本，按起始地址排序，起始地址为全局地址，不可修改；尚未生成时为 null
+
+    public WorkbenchSnapshot(long version, int workbenchId, int totalSpace, int usedSpace,
+                             int largestFreeBlock, long fragmentationFailures) {
+        this(version, workbenchId, totalSpace, usedSpace, largestFreeBlock, fragmentationFailures, null);
+    }
+
+    private WorkbenchSnapshot(long version, int workbenchId, int totalSpace, int usedSpace,
+                              int largestFreeBlock, long fragmentationFailures, List<Partition> partitions) {
+        this.version = version;
+        this.workbenchId = workbenchId;
+        this.totalSpace = totalSpace;
+        this.usedSpace = usedSpace;
+        this.largestFreeBlock = largestFreeBlock;
+        this.fragmentationFailures = fragmentationFailures;
+        this.partitions = partitions;
+    }
+
+    /**
+     * 同一版本附带分区表副本（调用方须保证 livePartitions 正是该版本的分区表，即持有工作台锁且版本未变）
+     */
+    public WorkbenchSnapshot withPartitions(int baseAddress, List<Partition> livePartitions) {
+        // 分配器中的分区对象会被继续修改（切分、合并、搬移），这里逐个复制
+        List<Partition> copies = new ArrayList<>(livePartitions.size());
+        for (Partition live : livePartitions) {
+            Partition copy = new Partition(live.getId(), live.getSize(), baseAddress + live.getStartAddress());
+            copy.setWorkbenchId(workbenchId);
+            copy.setAllocated(live.isAllocated());
+            copy.setOrderId(live.getOrderId());
+            copy.setDishName(live.getDishName());
+            copy.setReserved(live.isReserved());
+            copies.add(copy);
+        }
+        return new WorkbenchSnapshot(version, workbenchId, totalSpace, usedSpace, largestFreeBlock,
+                fragmentationFailures, Collections.unmodifiableList(copies));
+    }
+
+    public boolean hasPartitions() {
+        return partitions != null;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getWorkbenchId() {
+        return workbenchId;
+    }
+
+    public int getTotalSpace() {
+        return totalSpace;
+    }
+
+    public int getUsedSpace() {
+        return usedSpace;
+    }
+
+    public int getFreeSpace() {
+        return totalSpace - usedSpace;
+    }
+
+    public int getLargestFreeBlock() {
+        return largestFreeBlock;
+    }
+
+    public long getFragmentationFailures() {
+        return fragmentationFailures;
+    }
+
+    /**
+     * 外部碎片率 = 1 - 最大连续空闲块 / 总空闲空间（无空闲时为 0）
+     */
+    public double getExternalFragmentation() {
+        int totalFree = getFreeSpace();
+        if (totalFree <= 0) {
+            return 0.0;
+        }
+        return 1.0 - (double) largestFreeBlock / totalFree;
+    }
+
+    public List<Partition> getPartitions() {
+        return partitions;
+    }
+}
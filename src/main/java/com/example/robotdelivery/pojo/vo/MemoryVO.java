@@ -18,6 +18,17 @@ public class MemoryVO {
     // Partition POJO 可以直接复用，因为它已经包含了所有必要信息
     private List<Partition> partitions;
 
+    // 3. 分配策略与碎片指标（来自 MemoryManager）
+    private String allocator;               // 分配器（free-list / buddy）
+    private String placementPolicy;         // 放置策略（first / next / best / worst）
+    private int largestFreeBlock;           // 最大连续空闲块
+    private double externalFragmentation;   // 外部碎片率：1 - 最大连续空闲块 / 总空闲
+    private long fragmentationFailures;     // 因碎片（总空闲足够但无足够大的连续块）导致的分配失败次数
+
+    // 4. 多工作台：顶层为汇总（workbenchId 为空），workbenches 为各工作台明细
+    private Integer workbenchId;
+    private List<MemoryVO> workbenches;
+
     // Getters and Setters
     public int getTotalSpace() {
         return totalSpace;
@@ -51,13 +62,72 @@ public class MemoryVO {
         this.partitions = partitions;
     }
 
+    public String getAllocator() {
+        return allocator;
+    }
+
+    public void setAllocator(String allocator) {
+        this.allocator = allocator;
+    }
+
+    public String getPlacementPolicy() {
+        return placementPolicy;
+    }
+
+    public void setPlacementPolicy(String placementPolicy) {
+        this.placementPolicy = placementPolicy;
+    }
+
+    public int getLargestFreeBlock() {
+        return largestFreeBlock;
+    }
+
+    public void setLargestFreeBlock(int largestFreeBlock) {
+        this.largestFreeBlock = largestFreeBlock;
+    }
+
+    public double getExternalFragmentation() {
+        return externalFragmentation;
+    }
+
+    public void setExternalFragmentation(double externalFragmentation) {
+        this.externalFragmentation = externalFragmentation;
+    }
+
+    public long getFragmentationFailures() {
+        return fragmentationFailures;
+    }
+
+    public void setFragmentationFailures(long fragmentationFailures) {
+        this.fragmentationFailures = fragmentationFailures;
+    }
+
+    public Integer getWorkbenchId() {
+        return workbenchId;
+    }
+
+    public void setWorkbenchId(Integer workbenchId) {
+        this.workbenchId = workbenchId;
+    }
+
+    public List<MemoryVO> getWorkbenches() {
+        return workbenches;
+    }
+
+    public void setWorkbenches(List<MemoryVO> workbenches) {
+        this.workbenches = workbenches;
+    }
+
     @Override
     public String toString() {
         return "MemoryVO{" +
-                "totalSpace=" + totalSpace +
+                "workbenchId=" + workbenchId +
+                ", totalSpace=" + totalSpace +
                 ", usedSpace=" + usedSpace +
                 ", freeSpace=" + freeSpace +
                 ", partitionCount=" + (partitions != null ? partitions.size() : 0) +
+                ", placementPolicy=" + placementPolicy +
+                ", externalFragmentation=" + externalFragmentation +
                 '}';
     }
 }
\ No newline at end of file
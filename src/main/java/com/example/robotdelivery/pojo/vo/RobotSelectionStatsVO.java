@@ -0,0 +1,20 @@
+package com.example.robotdelivery.pojo.vo;
+
+import lombok.Data;
+
+/**
+ * 机器人选择策略统计：用于比较不同策略的完工时间（makespan）与尾延迟
+ */
+@Data
+public class RobotSelectionStatsVO {
+    private String strategy;
+    private boolean active;          // 是否为当前生效策略
+    private long selections;         // 选中机器人次数
+    private long misses;             // 无空闲机器人次数
+    private long completedOrders;    // 该策略派发并已完成的订单数
+    private long makespanMs;         // 该策略首次派发到最近一次完成的时间跨度
+    private double avgLatencyMs;     // 订单创建到完成的平均耗时
+    private double p95LatencyMs;
+    private double p99LatencyMs;
+    private double maxLatencyMs;
+}
@@ -26,11 +26,10 @@ public class ToolVo {
         }
 
         // 3. 设置占用机器人信息
-        Integer robotId = tool.getToolStatus(); // 注意：您的 toolStatus 字段存储了占用它的 robotId
-        if (robotId.equals(Tools.STATUS_FREE)) {
+        Integer robotId = tool.getOccupiedByRobotId(); // 占用者由 Tools 的 owner 字段派生
+        if (robotId == null) {
             vo.setOccupiedByRobot("无");
         } else {
-            // 假设机器人ID即为 toolStatus 的值
             vo.setOccupiedByRobot("Robot-" + robotId);
         }
 
@@ -11,16 +11,15 @@ import java.util.List;
  */
 public class WorkstationVo {
     private int id;                 // 工作台ID (对应 Partition ID)
+    private int workbenchId;        // 分区所属的物理工作台
     private int capacity;           // 容量 (对应 Partition size)
     private String status;          // 状态 (e.g., "空闲", "已分配")
     private String occupiedByRobot; // 占用机器人 (e.g., "Robot-1", "无")
     private String currentTask;     // 当前任务 (e.g., "Dish-101", "无")
 
-    // 静态工厂方法：仅通过 Memory 对象构建 WorkstationVo（需指定当前分区索引）
-    public static WorkstationVo fromMemory(Memory memory, int partitionIndex) {
+    // 静态工厂方法：通过 Memory 与分区列表（来自 MemoryManager）构建 WorkstationVo（需指定当前分区索引）
+    public static WorkstationVo fromMemory(Memory memory, List<Partition> partitions, int partitionIndex) {
         WorkstationVo vo = new WorkstationVo();
-        // 从 Memory 中获取指定索引的分区
-        List<Partition> partitions = memory.getPartitions();
         if (partitionIndex < 0 || partitionIndex >= partitions.size()) {
             throw new IllegalArgumentException("分区索引无效: " + partitionIndex);
         }
@@ -28,6 +27,7 @@ public class WorkstationVo {
 
         // 1. 基础信息（来自分区）
         vo.setId(partition.getId());
+        vo.workbenchId = memory.getWorkbenchId();
         vo.capacity = partition.getSize();
 
         // 2. 状态和任务（来自分区）
@@ -53,6 +53,8 @@ public class WorkstationVo {
     // Getters and Setters（保持不变）
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
+    public int getWorkbenchId() { return workbenchId; }
+    public void setWorkbenchId(int workbenchId) { this.workbenchId = workbenchId; }
     public int getCapacity() { return capacity; }
     public void setCapacity(int capacity) { this.capacity = capacity; }
     public String getStatus() { return status; }
@@ -0,0 +1,29 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 静态优先级 + 老化：键 = 创建时间(ms) - 优先级 × agingMs
+ * 每等待 agingMs 相当于优先级 +1，低优先级订单最多比新到的高优先级订单多等 (优先级差 × agingMs)
+ */
+@Component
+public class AgingPriorityPolicy implements OrderSchedulingPolicy {
+
+    public static final String NAME = "priority";
+
+    @Value("${robot.scheduler.aging-ms:10000}")
+    private long agingMs; // 老化步长
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long queueKey(Order order) {
+        int priority = order.getPriority() != null ? order.getPriority() : 0;
+        return OrderSchedulingPolicy.createMillis(order) - priority * agingMs;
+    }
+}
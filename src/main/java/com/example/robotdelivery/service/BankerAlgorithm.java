@@ -1,199 +1,54 @@
 package com.example.robotdelivery.service;
 
-import com.example.robotdelivery.pojo.MemorySnapshot;
-import java.util.Arrays;
 import com.example.robotdelivery.pojo.Dish;
-import com.example.robotdelivery.pojo.Memory;
 import com.example.robotdelivery.pojo.Order;
-import com.example.robotdelivery.pojo.Order.OrderStatus;
-import com.example.robotdelivery.pojo.Robot;
 import com.example.robotdelivery.pojo.Tools;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
-
+/**
+ * 银行家算法的准入预检：资源向量 = 各类工具数 + 工作台空间，检查过程不创建对象、不加锁
+ * Available 每次检查时从 ToolManager 空闲计数与目标工作台读取
+ * 资源整体预留（要么全拿到、要么不占）下不会出现持有部分资源再等待的进程，安全序列总是存在，
+ * 因此只需检查 Request ≤ Available，无需 Allocation 矩阵
+ */
 @Component
 public class BankerAlgorithm {
-    // 移除：不再需要记录真实Memory的临时数据
-    // private int preSimulateUsedSpace;
-
-    /**
-     * 检查资源是否安全：使用Memory快照，不修改真实数据
-     */
-    public boolean isResourceSafe(Robot robot, Order order, List<Tools> allTools, List<Robot> allRobots, Memory realMemory) {
-        Dish dish = order.getDish();
-        // 1. 创建真实Memory的快照（复制当前真实数据）
-        MemorySnapshot snapshot = new MemorySnapshot(realMemory);
-        // 2. 创建工具列表的副本（避免模拟分配修改真实工具状态）
-        List<Tools> toolSnapshots = copyTools(allTools);
-        // 3. 创建机器人副本（避免模拟分配修改真实机器人状态）
-        Robot robotSnapshot = copyRobot(robot);
 
-        // 4. 模拟分配：仅操作副本，不影响真实数据
-        simulateAllocate(robotSnapshot, order, toolSnapshots, snapshot);
+    private static final Tools.ToolType[] TOOL_TYPES = Tools.ToolType.values();
 
-        // 5. 检查安全状态：基于副本数据判断
-        boolean isSafe = checkSystemSafe(toolSnapshots, allRobots, snapshot, robotSnapshot,realMemory);
+    @Autowired
+    private ToolManager toolManager; // 读取各类型空闲工具数量，无需复制工具列表
 
-        // 6. 无需撤销模拟分配：因为操作的是副本，直接丢弃即可
-        System.out.println("银行家算法判断结果：" + isSafe);
-        return isSafe;
-    }
-
-    // 复制工具列表：避免模拟分配修改真实工具状态
-    private List<Tools> copyTools(List<Tools> realTools) {
-        return realTools.stream().map(tool -> {
-            Tools copy = new Tools();
-            copy.setToolId(tool.getToolId());
-            copy.setToolType(tool.getToolType());
-            copy.setToolStatus(tool.getToolStatus());
-            copy.setOccupiedByRobotId(tool.getOccupiedByRobotId());
-            return copy;
-        }).collect(Collectors.toList());
-    }
-
-    // 复制机器人：避免模拟分配修改真实机器人状态
-    private Robot copyRobot(Robot realRobot) {
-        Robot copy = new Robot();
-        copy.setRobotId(realRobot.getRobotId());
-        copy.setRobotStatus(realRobot.getRobotStatus());
-        copy.setCurrentOrder(realRobot.getCurrentOrder());
-        copy.setOccupiedOven(realRobot.getOccupiedOven() != null ? copyTools(Collections.singletonList(realRobot.getOccupiedOven())).get(0) : null);
-        copy.setOccupiedFryPan(realRobot.getOccupiedFryPan() != null ? copyTools(Collections.singletonList(realRobot.getOccupiedFryPan())).get(0) : null);
-        // 新增：炸锅副本复制
-        copy.setOccupiedFryPot(realRobot.getOccupiedFryPot() != null ? copyTools(Collections.singletonList(realRobot.getOccupiedFryPot())).get(0) : null);
-
-        return copy;
-    }
-
-    // 模拟分配：仅操作副本（RobotSnapshot、ToolSnapshots、MemorySnapshot）
-    private void simulateAllocate(Robot robotSnapshot, Order order, List<Tools> toolSnapshots, MemorySnapshot snapshot) {
+    /**
+     * 当前空闲资源能否满足订单的需求向量（Request ≤ Available），O(m)
+     * 为什么这就是安全检查：资源整体预留保证每个进程要么已持有全部最大需求（Need = 0），要么什么都没持有，
+     * 忙碌机器人总能完成并归还，等待中的订单随后逐个运行；超过资源池容量的需求任何状态下都无法满足，与本次分配无关
+     * 只读空闲计数、不加资源锁，结果是预检：真正的准入由工具整体预留与工作台分配决定
+     * @param workbench 预计接收该订单的工作台（空间维度取其空闲空间，加上为该订单自身预留的空间）
+     */
+    public boolean fitsAvailable(Order order, MemoryManager workbench) {
         Dish dish = order.getDish();
-        System.out.println("开始给机器人" + robotSnapshot.getRobotId() + "模拟分配资源，需要烤箱：" + dish.getNeedOven());
-
-        // 模拟分配烤箱（操作工具副本）
-        if (dish.getNeedOven()) {
-            List<Tools> freeOvens = toolSnapshots.stream()
-                    .filter(t -> t.getToolType() == Tools.ToolType.OVEN && t.getToolStatus() == Tools.STATUS_FREE)
-                    .collect(Collectors.toList());
-            System.out.println("可用烤箱数量：" + freeOvens.size());
-
-            if (!freeOvens.isEmpty()) {
-                Tools oven = freeOvens.get(0);
-                oven.setToolStatus(Tools.STATUS_OCCUPIED);
-                oven.setOccupiedByRobotId(robotSnapshot.getRobotId());
-                robotSnapshot.setOccupiedOven(oven);
-                System.out.println("机器人" + robotSnapshot.getRobotId() + "成功分配烤箱" + oven.getToolId());
-            } else {
-                System.out.println("机器人" + robotSnapshot.getRobotId() + "没有可用烤箱！");
+        for (Tools.ToolType type : TOOL_TYPES) {
+            if (needs(dish, type) && toolManager.freeCount(type) == 0) {
+                return false;
             }
         }
-
-        // 模拟分配煎锅（操作工具副本）
-        if (dish.getNeedFryPan()) {
-            List<Tools> freeFryPans = toolSnapshots.stream()
-                    .filter(t -> t.getToolType() == Tools.ToolType.FRY_PAN && t.getToolStatus() == Tools.STATUS_FREE)
-                    .collect(Collectors.toList());
-            System.out.println("可用煎锅数量：" + freeFryPans.size());
-
-            if (!freeFryPans.isEmpty()) {
-                Tools fryPan = freeFryPans.get(0);
-                fryPan.setToolStatus(Tools.STATUS_OCCUPIED);
-                fryPan.setOccupiedByRobotId(robotSnapshot.getRobotId());
-                robotSnapshot.setOccupiedFryPan(fryPan);
-                System.out.println("机器人" + robotSnapshot.getRobotId() + "成功分配煎锅" + fryPan.getToolId());
-            } else {
-                System.out.println("机器人" + robotSnapshot.getRobotId() + "没有可用煎锅！");
-            }
-        }
-        // 新增：炸锅模拟分配
-        if (dish.getNeedFryPot() != null && dish.getNeedFryPot()) {
-            List<Tools> freeFryPots = toolSnapshots.stream()
-                    .filter(t -> t.getToolType() == Tools.ToolType.FRY_POT && t.getToolStatus() == Tools.STATUS_FREE)
-                    .collect(Collectors.toList());
-            System.out.println("可用炸锅数量：" + freeFryPots.size());
-
-            if (!freeFryPots.isEmpty()) {
-                Tools fryPot = freeFryPots.get(0);
-                fryPot.setToolStatus(Tools.STATUS_OCCUPIED);
-                fryPot.setOccupiedByRobotId(robotSnapshot.getRobotId());
-                robotSnapshot.setOccupiedFryPot(fryPot); // 需Robot类支持setOccupiedFryPot
-                System.out.println("机器人" + robotSnapshot.getRobotId() + "成功分配炸锅" + fryPot.getToolId());
-            } else {
-                System.out.println("机器人" + robotSnapshot.getRobotId() + "没有可用炸锅！");
-            }
-        }
-
-        // 模拟分配工作区（操作快照，不影响真实数据）
-        int requiredSpace = dish.getRequiredSpace();
-        System.out.println("需要工作区空间：" + requiredSpace + "，当前已用（快照）：" + snapshot.getUsedSpace());
-        if (snapshot.getUsedSpace() + requiredSpace <= snapshot.getTotalSpace()) {
-            snapshot.setUsedSpace(snapshot.getUsedSpace() + requiredSpace);
-            snapshot.setOccupiedByRobotId(robotSnapshot.getRobotId());
-            robotSnapshot.setOccupiedWorkbench(null); // 快照无需关联真实工作区
-            System.out.println("机器人" + robotSnapshot.getRobotId() + "成功分配工作区（快照）");
-        } else {
-            System.out.println("机器人" + robotSnapshot.getRobotId() + "工作区空间不足（快照）！");
-        }
-
-        // 模拟关联订单和设置状态（操作机器人副本）
-        robotSnapshot.setCurrentOrder(order);
-        robotSnapshot.setRobotStatus(Robot.STATUS_BUSY);
-        System.out.println("机器人" + robotSnapshot.getRobotId() + "关联订单：" + order.getOrderId() + "，状态设为忙碌（快照）");
-    }
-
-    // 检查系统安全：基于副本数据判断
-    private boolean checkSystemSafe(List<Tools> toolSnapshots, List<Robot> realRobots, MemorySnapshot snapshot, Robot simulatedRobot,Memory realMemory) {
-        System.out.println("开始检查系统安全性，共" + realRobots.size() + "个机器人（含模拟机器人）");
-
-        // 1. 先检查模拟分配的机器人是否能完成订单（基于快照数据）
-        System.out.println("检查模拟机器人" + simulatedRobot.getRobotId() + "，状态：" + simulatedRobot.getRobotStatus());
-        boolean simulatedRobotSafe = isRobotSafe(simulatedRobot, snapshot);
-        System.out.println("模拟机器人" + simulatedRobot.getRobotId() + "是否能完成订单：" + simulatedRobotSafe);
-        if (simulatedRobotSafe) {
-            return true;
-        }
-
-        // 2. 再检查真实机器人是否能完成订单（基于真实数据）
-        for (Robot realRobot : realRobots) {
-            if (realRobot.getRobotId() == simulatedRobot.getRobotId()) {
-                continue; // 跳过已检查的模拟机器人
-            }
-            System.out.println("检查真实机器人" + realRobot.getRobotId() + "，状态：" + realRobot.getRobotStatus());
-            boolean realRobotSafe = isRobotSafe(realRobot, new MemorySnapshot(realMemory)); // 基于真实数据的快照
-            System.out.println("真实机器人" + realRobot.getRobotId() + "是否能完成订单：" + realRobotSafe);
-            if (realRobotSafe) {
-                return true;
-            }
-        }
-
-        return false;
+        int requiredSpace = dish.getRequiredSpace() == null ? 0 : dish.getRequiredSpace();
+        return requiredSpace <= workbench.getAvailableSpaceFor(order.getOrderId());
     }
 
-    // 判断单个机器人是否能完成订单（兼容真实机器人和模拟机器人）
-    private boolean isRobotSafe(Robot robot, MemorySnapshot memorySnapshot) {
-        if (robot.getRobotStatus() != Robot.STATUS_BUSY) {
-            return false;
-        }
-
-        Order order = robot.getCurrentOrder();
-        if (order == null || order.getDish() == null) {
-            return false;
+    // 菜品的工具需求：每种所需工具 1 件
+    private static boolean needs(Dish dish, Tools.ToolType type) {
+        switch (type) {
+            case OVEN:
+                return Boolean.TRUE.equals(dish.getNeedOven());
+            case FRY_PAN:
+                return Boolean.TRUE.equals(dish.getNeedFryPan());
+            case FRY_POT:
+                return Boolean.TRUE.equals(dish.getNeedFryPot());
+            default:
+                return false;
         }
-        Dish dish = order.getDish();
-
-        // 检查工具是否齐全（真实机器人用真实工具，模拟机器人用副本工具）
-        boolean hasOven = !dish.getNeedOven() || (robot.getOccupiedOven() != null && robot.getOccupiedOven().getToolStatus() == Tools.STATUS_OCCUPIED);
-        boolean hasFryPan = !dish.getNeedFryPan() || (robot.getOccupiedFryPan() != null && robot.getOccupiedFryPan().getToolStatus() == Tools.STATUS_OCCUPIED);
-        // 新增：炸锅检查
-        boolean hasFryPot = !dish.getNeedFryPot() || (robot.getOccupiedFryPot() != null && robot.getOccupiedFryPot().getToolStatus() == Tools.STATUS_OCCUPIED);
-
-        // 检查工作区是否满足（真实机器人用真实数据快照，模拟机器人用模拟快照）
-        boolean hasWorkbench = memorySnapshot.getOccupiedByRobotId() != null && memorySnapshot.getOccupiedByRobotId().equals(robot.getRobotId());
-
-        System.out.println("资源检查结果 - 烤箱：" + hasOven + "，煎锅：" + hasFryPan + "，炸锅：" + hasFryPot + "，工作区：" + hasWorkbench);
-        return hasOven && hasFryPan && hasFryPot && hasWorkbench; // 新增炸锅条件
     }
-}
\ No newline at end of file
+}
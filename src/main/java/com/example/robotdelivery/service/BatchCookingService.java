@@ -0,0 +1,125 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 同菜品合并烹饪（可选）：派发队头订单时，把等待队列中同一菜品的订单（最多 maxSize - 1 个）并入同一次烹饪
+ * 合并的订单共用队头订单的机器人、工具和工作台分区，工具准备/收尾只做一次：
+ * 合并烹饪时长 = 单份时长 × (1 + extraItemRatio × 追加份数)
+ * 工作台空间：一批只占用队头订单的一个分区（requiredSpace 为单份空间，按同一分区内轮流出餐建模），
+ * 准入预检与工作台分配都只按队头订单计；为保证共用分区成立，只合并所需空间与队头相同的订单
+ * 队头订单自创建起不足 maxWaitMs 且批次未满时，短暂等待同菜品订单到达；已等待超过 maxWaitMs（高峰积压）则只合并已在队列中的
+ */
+@Service
+public class BatchCookingService {
+
+    private static final long COLLECT_POLL_MS = 20; // 等待同菜品订单时的检查间隔
+
+    @Autowired
+    private WorkbenchRegistry workbenchRegistry;
+
+    @Value("${robot.batch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${robot.batch.max-size:3}")
+    private int maxSize; // 每批最多订单数（含队头）
+
+    @Value("${robot.batch.max-wait-ms:300}")
+    private long maxWaitMs; // 队头订单为凑批最多等待到“创建后 maxWaitMs”
+
+    @Value("${robot.batch.extra-item-ratio:0.3}")
+    private double extraItemRatio; // 每追加一份增加的烹饪时长比例
+
+    // 队头订单ID → 并入其烹饪的订单
+    private final ConcurrentHashMap<Integer, List<Order>> followersByLeader = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 从等待队列中取出与队头同菜品、同空间的订单并入本批（已预留工作台空间的订单不合并，保留其预留）
+     * 凑批过程中被中断或出错时，已取出的订单按 policy 放回队列后再抛出
+     * @return 并入的订单（不含队头），未启用或没有同菜品订单时为空
+     */
+    public List<Order> collect(Order leader, PrioritySchedulingAlgorithm scheduler, OrderSchedulingPolicy policy)
+            throws InterruptedException {
+        if (!enabled || maxSize <= 1 || leader.getDish() == null) {
+            return Collections.emptyList();
+        }
+        Integer dishId = leader.getDish().getDishId();
+        Integer requiredSpace = leader.getDish().getRequiredSpace();
+        List<Order> followers = new ArrayList<>();
+        long deadline = deadlineOf(leader);
+        try {
+            while (true) {
+                List<Order> candidates = scheduler.top(maxSize - 1 - followers.size(), candidate ->
+                        candidate.getDish() != null && Objects.equals(candidate.getDish().getDishId(), dishId)
+                                && Objects.equals(candidate.getDish().getRequiredSpace(), requiredSpace)
+                                && !workbenchRegistry.hasReservation(candidate.getOrderId()));
+                for (Order candidate : candidates) {
+                    // 可能已被其他调度线程取走
+                    if (scheduler.remove(candidate)) {
+                        followers.add(candidate);
+                    }
+                }
+                if (followers.size() >= maxSize - 1 || System.currentTimeMillis() + COLLECT_POLL_MS > deadline) {
+                    break;
+                }
+                Thread.sleep(COLLECT_POLL_MS);
+            }
+        } catch (InterruptedException | RuntimeException e) {
+            for (Order follower : followers) {
+                scheduler.enqueue(follower, policy);
+            }
+            throw e;
+        }
+        if (!followers.isEmpty()) {
+            followersByLeader.put(leader.getOrderId(), followers);
+            System.out.println("[BatchCooking] 订单" + leader.getOrderId() + "（" + leader.getDish().getDishName() + "）合并同菜品订单"
+                    + followers.stream().map(Order::getOrderId).toList() + "，共" + (followers.size() + 1) + "份");
+        }
+        return followers;
+    }
+
+    // 凑批截止时刻：创建后 maxWaitMs
+    private long deadlineOf(Order leader) {
+        LocalDateTime createTime = leader.getCreateTime();
+        if (createTime == null) {
+            return System.currentTimeMillis();
+        }
+        long waited = Duration.between(createTime, LocalDateTime.now()).toMillis();
+        return System.currentTimeMillis() + Math.max(0, maxWaitMs - waited);
+    }
+
+    /**
+     * 取出并清除并入该队头订单的订单（派发失败时放回队列，烹饪完成时一并完成）
+     */
+    public List<Order> takeFollowers(Integer leaderOrderId) {
+        List<Order> followers = followersByLeader.remove(leaderOrderId);
+        return followers != null ? followers : Collections.emptyList();
+    }
+
+    public List<Order> getFollowers(Integer leaderOrderId) {
+        List<Order> followers = followersByLeader.get(leaderOrderId);
+        return followers != null ? followers : Collections.emptyList();
+    }
+
+    /**
+     * 一批的烹饪时长：准备/收尾共用，每追加一份只增加 extraItemRatio 倍单份时长
+     */
+    public long batchCookTime(long singleCookTime, int batchSize) {
+        return Math.round(singleCookTime * (1 + extraItemRatio * Math.max(0, batchSize - 1)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Partition;
+
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * 最佳适配：选最小的足够大空闲块，大小索引上一次 ceiling 查找（O(log n)，保留大块但会产生细小余块）
+ */
+public class BestFitPlacement implements PlacementPolicy {
+
+    public static final String NAME = "best";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Partition select(Partition head, NavigableMap<Long, Partition> freeBySize, int size) {
+        Map.Entry<Long, Partition> fit = freeBySize.ceilingEntry(PlacementPolicy.freeKey(size, 0));
+        return fit == null ? null : fit.getValue();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Partition;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 伙伴分配器：块大小均为 2 的幂，按阶维护空闲地址集合
+ * 总空间不是 2 的幂时拆成若干按自身大小对齐的顶层块（如 100 = 64 + 32 + 4），
+ * 分配时从最小可用阶拆分，释放时与伙伴（地址异或块大小）逐级合并，均为 O(log n)
+ * 分配粒度为 2 的幂，多出的部分计入已用空间（内部碎片）；单次需求不能超过最大的顶层块
+ */
+public class BuddyAllocator implements WorkbenchAllocator {
+
+    public static final String NAME = "buddy";
+    private static final int MAX_ORDER = 30;
+
+    private int usedSpace;
+    private int nextPartitionId;
+    // freeLists[k]：大小为 2^k 的空闲块起始地址
+    private final List<TreeSet<Integer>> freeLists = new ArrayList<>();
+    // 起始地址 → 分区（空闲与已分配）
+    private final TreeMap<Integer, Partition> blocksByAddress = new TreeMap<>();
+    private final Map<Integer, Partition> allocatedByOrder = new HashMap<>();
+
+    public BuddyAllocator() {
+        for (int k = 0; k <= MAX_ORDER; k++) {
+            freeLists.add(new TreeSet<>());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void init(int totalSpace) {
+        usedSpace = 0;
+        nextPartitionId = 1;
+        freeLists.forEach(TreeSet::clear);
+        blocksByAddress.clear();
+        allocatedByOrder.clear();
+        // 从大到小拆分总空间，每个顶层块都按自身大小对齐
+        int address = 0;
+        for (int k = MAX_ORDER; k >= 0; k--) {
+            int blockSize = 1 << k;
+            if ((totalSpace & blockSize) != 0) {
+                addFree(address, k);
+                address += blockSize;
+            }
+        }
+    }
+
+    @Override
+    public Partition allocate(int orderId, int size, String dishName) {
+        int order = orderFor(size);
+        int k = order;
+        while (k <= MAX_ORDER && freeLists.get(k).isEmpty()) {
+            k++;
+        }
+        if (k > MAX_ORDER) {
+            return null;
+        }
+        int address = freeLists.get(k).first();
+        removeFree(address, k);
+        // 逐级拆分，高半部分放回对应阶的空闲集合
+        while (k > order) {
+            k--;
+            addFree(address + (1 << k), k);
+        }
+        Partition block = newPartition(1 << order, address);
+        block.setAllocated(true);
+        block.setOrderId(orderId);
+        block.setDishName(dishName);
+        allocatedByOrder.put(orderId, block);
+        usedSpace += block.getSize();
+        return block;
+    }
+
+    @Override
+    public boolean release(int orderId) {
+        Partition block = allocatedByOrder.remove(orderId);
+        if (block == null) {
+            return false;
+        }
+        usedSpace -= block.getSize();
+        blocksByAddress.remove(block.getStartAddress());
+        int address = block.getStartAddress();
+        int k = Integer.numberOfTrailingZeros(block.getSize());
+        // 伙伴空闲则合并，直到伙伴被占用或不存在（顶层块各阶不同，跨顶层块的“伙伴”不会出现在同阶空闲集合中）
+        while (k < MAX_ORDER) {
+            int buddy = address ^ (1 << k);
+            if (!freeLists.get(k).contains(buddy)) {
+                break;
+            }
+            removeFree(buddy, k);
+            address = Math.min(address, buddy);
+            k++;
+        }
+        addFree(address, k);
+        return true;
+    }
+
+    @Override
+    public boolean isAllocated(int orderId) {
+        return allocatedByOrder.containsKey(orderId);
+    }
+
+    @Override
+    public int getUsedSpace() {
+        return usedSpace;
+    }
+
+    @Override
+    public int getLargestFreeBlock() {
+        for (int k = MAX_ORDER; k >= 0; k--) {
+            if (!freeLists.get(k).isEmpty()) {
+                return 1 << k;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public List<Partition> getPartitions() {
+        return new ArrayList<>(blocksByAddress.values());
+    }
+
+    private void addFree(int address, int k) {
+        freeLists.get(k).add(address);
+        newPartition(1 << k, address);
+    }
+
+    private void removeFree(int address, int k) {
+        freeLists.get(k).remove(address);
+        blocksByAddress.remove(address);
+    }
+
+    private Partition newPartition(int size, int startAddress) {
+        Partition partition = new Partition(nextPartitionId++, size, startAddress);
+        blocksByAddress.put(startAddress, partition);
+        return partition;
+    }
+
+    // 不小于 size 的最小 2 的幂的阶
+    private static int orderFor(int size) {
+        return size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 烹饪执行器：取代“每个订单新建一个线程 + Thread.sleep(cookTime)”
+ * 烹饪计时交给单线程定时器（时间轮），到点后把完成回调（释放资源、写库）
+ * 投递到有界的完成线程池执行，在途订单再多也只占用固定数量的系统线程
+ * 完成队列同样有界：积压满时由定时器线程直接执行回调（CallerRunsPolicy），
+ * 回调负责释放资源，不能丢弃，只会让后续到点的烹饪稍晚完成
+ */
+@Component
+public class CookingExecutor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${robot.cooking.completion-threads:4}")
+    private int completionThreads; // 同时执行完成回调的最大线程数
+
+    @Value("${robot.cooking.completion-queue-capacity:1024}")
+    private int completionQueueCapacity; // 等待执行的完成回调上限
+
+    @Value("${robot.cooking.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs; // 关闭时等待在途烹饪完成的最长时间
+
+    private ScheduledThreadPoolExecutor cookTimer;
+    private ThreadPoolExecutor completionPool;
+
+    private final AtomicInteger activeCooks = new AtomicInteger(0); // 正在计时（烹饪中）的订单数
+    private Counter completedCooks;
+
+    @PostConstruct
+    public void init() {
+        cookTimer = new ScheduledThreadPoolExecutor(1, namedThreadFactory("Cooking-Timer"));
+        cookTimer.setRemoveOnCancelPolicy(true);
+        // 关闭时默认仍会执行已提交的计时任务，保证资源最终被释放
+
+        completionPool = new ThreadPoolExecutor(
+                completionThreads, completionThreads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(completionQueueCapacity),
+                namedThreadFactory("Cooking-Completion"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        Gauge.builder("robot.cooking.active", activeCooks, AtomicInteger::get)
+                .description("正在烹饪（计时中）的订单数")
+                .register(meterRegistry);
+        Gauge.builder("robot.cooking.queued", completionPool, pool -> pool.getQueue().size())
+                .description("烹饪已完成、等待执行完成回调的订单数")
+                .register(meterRegistry);
+        completedCooks = Counter.builder("robot.cooking.completed")
+                .description("累计完成的烹饪数")
+                .register(meterRegistry);
+
+        System.out.println("[CookingExecutor] 烹饪执行器初始化完成，完成回调线程数：" + completionThreads + "，完成队列容量：" + completionQueueCapacity);
+    }
+
+    /**
+     * 提交一次烹饪：cookTimeMs 后在完成线程池中执行 onComplete
+     */
+    public void submit(Order order, long cookTimeMs, Runnable onComplete) {
+        activeCooks.incrementAndGet();
+        cookTimer.schedule(() -> completionPool.execute(() -> {
+            try {
+                onComplete.run();
+            } catch (Exception e) {
+                System.err.println("订单" + order.getOrderId() + "完成回调异常：" + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                activeCooks.decrementAndGet();
+                completedCooks.increment();
+            }
+        }), cookTimeMs, TimeUnit.MILLISECONDS);
+    }
+
+    public int getActiveCooks() {
+        return activeCooks.get();
+    }
+
+    public int getQueuedCompletions() {
+        return completionPool.getQueue().size();
+    }
+
+    /**
+     * 优雅关闭：不再接收新烹饪，等待在途烹饪及其完成回调执行完毕，超时后强制关闭
+     */
+    @PreDestroy
+    public void shutdown() {
+        System.out.println("[CookingExecutor] 开始关闭，在途烹饪：" + activeCooks.get());
+        cookTimer.shutdown();
+        try {
+            if (!cookTimer.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                int dropped = cookTimer.shutdownNow().size();
+                System.err.println("[CookingExecutor] 等待烹饪超时，放弃 " + dropped + " 个未完成的烹饪");
+            }
+            completionPool.shutdown();
+            if (!completionPool.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                completionPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            cookTimer.shutdownNow();
+            completionPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("[CookingExecutor] 已关闭");
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger(1);
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -32,13 +32,21 @@ public class DeadlockSimulation
     private final Object resourceLock = new Object();
 
     public DeadlockSimulation(List<Order> orders)
+    {
+        this(orders, defaultToolCounts());
+    }
+
+    /**
+     * @param toolCounts 各类型工具数量（取自 ToolManager 当前在役数量，与真实工具池保持一致）
+     */
+    public DeadlockSimulation(List<Order> orders, Map<ToolType, Integer> toolCounts)
     {
         // 深拷贝订单
         this.orders = deepCopyOrders(orders);
 
         // 初始化独立机器人和工具
         this.robots = initRobots();
-        this.tools = initTools();
+        this.tools = initTools(toolCounts);
 
         // 使用固定线程池，线程数 = 机器人数量
         this.executor = Executors.newFixedThreadPool(robots.size());
@@ -93,38 +101,34 @@ public class DeadlockSimulation
         return list;
     }
 
-    private List<Tools> initTools()
+    // 默认工具数量：2烤箱、2煎锅、1炸锅
+    private static Map<ToolType, Integer> defaultToolCounts()
+    {
+        Map<ToolType, Integer> counts = new EnumMap<>(ToolType.class);
+        counts.put(ToolType.OVEN, 2);
+        counts.put(ToolType.FRY_PAN, 2);
+        counts.put(ToolType.FRY_POT, 1);
+        return counts;
+    }
+
+    private List<Tools> initTools(Map<ToolType, Integer> toolCounts)
     {
         List<Tools> list = new ArrayList<>();
         AtomicInteger toolCounter = new AtomicInteger(1);
 
-        // 2烤箱
-        for (int i = 0; i < 2; i++)
-        {
-            Tools t = new Tools();
-            t.setToolId(toolCounter.getAndIncrement());
-            t.setToolType(ToolType.OVEN);
-            t.setToolStatus(Tools.STATUS_FREE);
-            list.add(t);
-        }
-
-        // 2煎锅
-        for (int i = 0; i < 2; i++)
+        for (ToolType type : ToolType.values())
         {
-            Tools t = new Tools();
-            t.setToolId(toolCounter.getAndIncrement());
-            t.setToolType(ToolType.FRY_PAN);
-            t.setToolStatus(Tools.STATUS_FREE);
-            list.add(t);
+            int count = toolCounts.getOrDefault(type, 0);
+            for (int i = 0; i < count; i++)
+            {
+                Tools t = new Tools();
+                t.setToolId(toolCounter.getAndIncrement());
+                t.setToolType(type);
+                t.setToolStatus(Tools.STATUS_FREE);
+                list.add(t);
+            }
         }
 
-        // 1炸锅
-        Tools t = new Tools();
-        t.setToolId(toolCounter.getAndIncrement());
-        t.setToolType(ToolType.FRY_POT);
-        t.setToolStatus(Tools.STATUS_FREE);
-        list.add(t);
-
         return list;
     }
 
@@ -0,0 +1,33 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 最早截止时间优先（EDF）：截止时间 = 创建时间 + 该优先级的 SLA，键为截止时间
+ * SLA 按优先级 1..N 依次配置，优先级超出范围时取最近的一档
+ */
+@Component
+public class EarliestDeadlineFirstPolicy implements OrderSchedulingPolicy {
+
+    public static final String NAME = "edf";
+
+    @Value("${robot.scheduler.edf.sla-ms:30000,25000,20000,15000,10000}")
+    private long[] slaMs; // 优先级 1..N 的 SLA（ms）
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long queueKey(Order order) {
+        return OrderSchedulingPolicy.createMillis(order) + slaOf(order.getPriority());
+    }
+
+    public long slaOf(Integer priority) {
+        int index = priority != null ? priority - 1 : 0;
+        return slaMs[Math.max(0, Math.min(index, slaMs.length - 1))];
+    }
+}
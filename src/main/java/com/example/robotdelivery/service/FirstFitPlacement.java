@@ -0,0 +1,28 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Partition;
+
+import java.util.NavigableMap;
+
+/**
+ * 首次适配：按地址从低到高，选第一个足够大的空闲块（O(n)，低地址容易积累小碎片）
+ */
+public class FirstFitPlacement implements PlacementPolicy {
+
+    public static final String NAME = "first";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Partition select(Partition head, NavigableMap<Long, Partition> freeBySize, int size) {
+        for (Partition block = head; block != null; block = block.getNext()) {
+            if (!block.isAllocated() && block.getSize() >= size) {
+                return block;
+            }
+        }
+        return null;
+    }
+}
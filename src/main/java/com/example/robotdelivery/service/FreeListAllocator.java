@@ -0,0 +1,204 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Partition;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 空闲链表分配器（放置策略可配置，默认最佳适配）
+ * 全部分区按地址串成双向链表：释放时直接通过 prev/next O(1) 找到相邻空闲块合并；
+ * 空闲块另按“大小 + 起始地址”组合键排序，最佳/最差适配在该索引上 O(log n) 查找，首次/循环首次适配沿链表扫描；
+ * 订单ID → 分区索引使释放与查重不再遍历分区
+ */
+public class FreeListAllocator implements WorkbenchAllocator {
+
+    public static final String NAME = "free-list";
+
+    private int usedSpace;
+    private int nextPartitionId;
+    private int partitionCount;
+    // 地址最低的分区（链表头）
+    private Partition head;
+    // (大小 << 32 | 起始地址) → 空闲分区
+    private final TreeMap<Long, Partition> freeBySize = new TreeMap<>();
+    // 订单ID → 已分配分区
+    private final Map<Integer, Partition> allocatedByOrder = new HashMap<>();
+    private final PlacementPolicy placement;
+
+    public FreeListAllocator() {
+        this(new BestFitPlacement());
+    }
+
+    public FreeListAllocator(PlacementPolicy placement) {
+        this.placement = placement;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getPlacementName() {
+        return placement.getName();
+    }
+
+    @Override
+    public void init(int totalSpace) {
+        this.usedSpace = 0;
+        this.nextPartitionId = 1;
+        this.partitionCount = 1;
+        freeBySize.clear();
+        allocatedByOrder.clear();
+        head = newPartition(totalSpace, 0);
+        addFree(head);
+    }
+
+    @Override
+    public Partition allocate(int orderId, int size, String dishName) {
+        Partition block = placement.select(head, freeBySize, size);
+        if (block == null) {
+            return null;
+        }
+        removeFree(block);
+
+        int extra = block.getSize() - size;
+        if (extra > 0) {
+            // 分割：前半部分分配给订单，剩余部分作为新的空闲块插在其后
+            block.setSize(size);
+            Partition rest = newPartition(extra, block.getStartAddress() + size);
+            linkAfter(block, rest);
+            addFree(rest);
+        }
+        block.setAllocated(true);
+        block.setOrderId(orderId);
+        block.setDishName(dishName);
+        allocatedByOrder.put(orderId, block);
+        usedSpace += block.getSize();
+        placement.onAllocated(block);
+        return block;
+    }
+
+    @Override
+    public boolean release(int orderId) {
+        Partition block = allocatedByOrder.remove(orderId);
+        if (block == null) {
+            return false;
+        }
+        usedSpace -= block.getSize();
+        block.setAllocated(false);
+        block.setOrderId(-1);
+        block.setDishName(null);
+
+        // 与前一个空闲块合并
+        Partition prev = block.getPrev();
+        if (prev != null && !prev.isAllocated()) {
+            removeFree(prev);
+            prev.setSize(prev.getSize() + block.getSize());
+            unlink(block);
+            block = prev;
+        }
+        // 与后一个空闲块合并
+        Partition next = block.getNext();
+        if (next != null && !next.isAllocated()) {
+            removeFree(next);
+            block.setSize(block.getSize() + next.getSize());
+            unlink(next);
+        }
+        addFree(block);
+        return true;
+    }
+
+    @Override
+    public boolean isAllocated(int orderId) {
+        return allocatedByOrder.containsKey(orderId);
+    }
+
+    @Override
+    public int getUsedSpace() {
+        return usedSpace;
+    }
+
+    @Override
+    public int getLargestFreeBlock() {
+        return freeBySize.isEmpty() ? 0 : freeBySize.lastEntry().getValue().getSize();
+    }
+
+    @Override
+    public List<Partition> getPartitions() {
+        List<Partition> partitions = new ArrayList<>(partitionCount);
+        for (Partition block = head; block != null; block = block.getNext()) {
+            partitions.add(block);
+        }
+        return partitions;
+    }
+
+    @Override
+    public int compactStep(int maxMoves) {
+        // 找到地址最低的空闲块（“空洞”），把紧随其后的已分配分区逐个下移填补，空洞随之后移并与后面的空闲块合并
+        Partition hole = head;
+        while (hole != null && hole.isAllocated()) {
+            hole = hole.getNext();
+        }
+        int moved = 0;
+        while (hole != null && hole.getNext() != null && moved < maxMoves) {
+            Partition block = hole.getNext();
+            removeFree(hole);
+            block.setStartAddress(hole.getStartAddress());
+            hole.setStartAddress(block.getStartAddress() + block.getSize());
+            unlink(hole);
+            linkAfter(block, hole);
+            Partition after = hole.getNext();
+            if (after != null && !after.isAllocated()) {
+                removeFree(after);
+                hole.setSize(hole.getSize() + after.getSize());
+                unlink(after);
+            }
+            addFree(hole);
+            moved++;
+        }
+        return moved;
+    }
+
+    private Partition newPartition(int size, int startAddress) {
+        return new Partition(nextPartitionId++, size, startAddress);
+    }
+
+    private void linkAfter(Partition block, Partition inserted) {
+        Partition next = block.getNext();
+        inserted.setPrev(block);
+        inserted.setNext(next);
+        block.setNext(inserted);
+        if (next != null) {
+            next.setPrev(inserted);
+        }
+        partitionCount++;
+    }
+
+    private void unlink(Partition block) {
+        Partition prev = block.getPrev();
+        Partition next = block.getNext();
+        if (prev != null) {
+            prev.setNext(next);
+        } else {
+            head = next;
+        }
+        if (next != null) {
+            next.setPrev(prev);
+        }
+        block.setPrev(null);
+        block.setNext(null);
+        partitionCount--;
+    }
+
+    private void addFree(Partition block) {
+        freeBySize.put(PlacementPolicy.freeKey(block.getSize(), block.getStartAddress()), block);
+    }
+
+    private void removeFree(Partition block) {
+        freeBySize.remove(PlacementPolicy.freeKey(block.getSize(), block.getStartAddress()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Robot;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 最少负载：选完成订单数最少的空闲机器人，相同则选ID较小者
+ */
+@Component
+public class LeastLoadedRobotSelection implements RobotSelectionStrategy {
+
+    @Override
+    public String getName() {
+        return "least-loaded";
+    }
+
+    @Override
+    public Robot select(List<Robot> candidates, Order order) {
+        Robot chosen = null;
+        for (Robot robot : candidates) {
+            if (chosen == null || compare(robot, chosen) < 0) {
+                chosen = robot;
+            }
+        }
+        return chosen;
+    }
+
+    static int finishedOf(Robot robot) {
+        return robot.getFinishedOrders() == null ? 0 : robot.getFinishedOrders();
+    }
+
+    static int compare(Robot a, Robot b) {
+        int byLoad = Integer.compare(finishedOf(a), finishedOf(b));
+        return byLoad != 0 ? byLoad : Integer.compare(a.getRobotId(), b.getRobotId());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Ingredient;
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Robot;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 位置亲和：选 robotLcation 离菜品第一个食材位置最近的空闲机器人，
+ * 距离相同（或位置未知）时退化为最少负载
+ */
+@Component
+public class LocationAffinityRobotSelection implements RobotSelectionStrategy {
+
+    @Override
+    public String getName() {
+        return "location-affinity";
+    }
+
+    @Override
+    public Robot select(List<Robot> candidates, Order order) {
+        Integer target = firstIngredientPosition(order);
+        Robot chosen = null;
+        long chosenDistance = Long.MAX_VALUE;
+        for (Robot robot : candidates) {
+            long distance = distance(robot, target);
+            if (chosen == null || distance < chosenDistance
+                    || (distance == chosenDistance && LeastLoadedRobotSelection.compare(robot, chosen) < 0)) {
+                chosen = robot;
+                chosenDistance = distance;
+            }
+        }
+        return chosen;
+    }
+
+    private long distance(Robot robot, Integer target) {
+        if (target == null || robot.getRobotLcation() == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.abs((long) robot.getRobotLcation() - target);
+    }
+
+    private Integer firstIngredientPosition(Order order) {
+        if (order.getDish() == null || order.getDish().getIngredients() == null) {
+            return null;
+        }
+        for (Ingredient ingredient : order.getDish().getIngredients()) {
+            if (ingredient.getPosition() != null) {
+                return ingredient.getPosition();
+            }
+        }
+        return null;
+    }
+}
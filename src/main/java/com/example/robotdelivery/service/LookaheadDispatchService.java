@@ -0,0 +1,135 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Dish;
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Tools;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 前瞻调度（装箱式）：队头订单拿不到当前空闲的工具或连续空间时，在队列前 K 个订单中挑一个现在就能运行的，
+ * 避免空闲工具因队头阻塞而闲置
+ * 挑选规则（最佳适配）：占用空闲工具最多者优先，其次所需空间最大（最贴合空闲块）者，再按队列顺序
+ * 公平窗口：每个订单作为队头时累计最多被越过 fairnessWindow 次，之后必须等它自己拿到资源；
+ * 只有改派的订单真正派发成功才计一次越过；计数按订单保存，多个调度线程轮流取到不同队头时互不清零，订单派发后清除
+ */
+@Service
+public class LookaheadDispatchService {
+
+    @Autowired
+    private ToolManager toolManager;
+
+    @Autowired
+    private WorkbenchRegistry workbenchRegistry;
+
+    @Value("${robot.dispatch.lookahead.enabled:true}")
+    private boolean enabled;
+
+    @Value("${robot.dispatch.lookahead.top-k:4}")
+    private int topK; // 队头之外最多查看的订单数
+
+    @Value("${robot.dispatch.lookahead.fairness-window:3}")
+    private int fairnessWindow;
+
+    // 订单ID → 该订单作为队头已被越过的次数（订单自身派发成功后移除）
+    private final ConcurrentHashMap<Integer, Integer> bypassCounts = new ConcurrentHashMap<>();
+    // 改派的订单ID → 被它越过的队头订单ID，派发结果出来后再计数
+    private final ConcurrentHashMap<Integer, Integer> pendingBypass = new ConcurrentHashMap<>();
+
+    /**
+     * 为已取出的队头订单选择本次实际派发的订单：队头可运行或不允许越过时返回队头；
+     * 否则从队列中取走选中的订单，并把队头按原策略放回队列
+     */
+    public Order choose(Order head, PrioritySchedulingAlgorithm scheduler, OrderSchedulingPolicy policy) {
+        if (!enabled || fitsNow(head) || bypassedCount(head) >= fairnessWindow) {
+            return head;
+        }
+        int largestHole = workbenchRegistry.getLargestFreeBlock();
+        Order best = null;
+        for (Order candidate : scheduler.top(topK)) {
+            if (candidate.getDish() == null || candidate.getDish().getRequiredSpace() == null || !fitsNow(candidate)) {
+                continue;
+            }
+            if (best == null || compareFit(candidate, best, largestHole) > 0) {
+                best = candidate;
+            }
+        }
+        // 选中的订单可能已被其他调度线程取走
+        if (best == null || !scheduler.remove(best)) {
+            return head;
+        }
+        bypassCounts.putIfAbsent(head.getOrderId(), 0);
+        pendingBypass.put(best.getOrderId(), head.getOrderId());
+        scheduler.enqueue(head, policy);
+        System.out.println("订单" + head.getOrderId() + "暂无空闲资源，前瞻调度尝试先派发订单" + best.getOrderId()
+                + "（队头已被越过" + bypassedCount(head) + "/" + fairnessWindow + "次）");
+        return best;
+    }
+
+    /**
+     * 订单派发结束（成功或失败）：派发成功的订单清除自己的越过计数；
+     * 它若是前瞻调度改派的，被它越过的队头（仍在等待时）越过次数 +1
+     */
+    public void onDispatchResult(Order order, boolean dispatched) {
+        Integer headId = pendingBypass.remove(order.getOrderId());
+        if (!dispatched) {
+            return;
+        }
+        bypassCounts.remove(order.getOrderId());
+        if (headId != null) {
+            // 队头在此期间已被其他调度线程派发时计数已移除，不再重新登记
+            bypassCounts.computeIfPresent(headId, (id, count) -> count + 1);
+        }
+    }
+
+    // 订单作为队头已被越过的次数
+    int bypassedCount(Order head) {
+        return bypassCounts.getOrDefault(head.getOrderId(), 0);
+    }
+
+    /**
+     * 当前空闲资源能否立即满足订单：所需工具都有空闲，且有工作台的连续空闲块放得下（已预留空间的订单视为放得下）
+     */
+    private boolean fitsNow(Order order) {
+        Dish dish = order.getDish();
+        if (Boolean.TRUE.equals(dish.getNeedOven()) && toolManager.freeCount(Tools.ToolType.OVEN) == 0) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(dish.getNeedFryPan()) && toolManager.freeCount(Tools.ToolType.FRY_PAN) == 0) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(dish.getNeedFryPot()) && toolManager.freeCount(Tools.ToolType.FRY_POT) == 0) {
+            return false;
+        }
+        return workbenchRegistry.hasReservation(order.getOrderId())
+                || workbenchRegistry.getLargestFreeBlock() >= dish.getRequiredSpace();
+    }
+
+    // 正数表示 a 比 b 更贴合当前空闲资源
+    private static int compareFit(Order a, Order b, int largestHole) {
+        int byTools = Integer.compare(toolCount(a.getDish()), toolCount(b.getDish()));
+        if (byTools != 0) {
+            return byTools;
+        }
+        // 都放得下时，所需空间越大，剩余碎片越小
+        return Integer.compare(Math.min(a.getDish().getRequiredSpace(), largestHole),
+                Math.min(b.getDish().getRequiredSpace(), largestHole));
+    }
+
+    private static int toolCount(Dish dish) {
+        int count = 0;
+        if (Boolean.TRUE.equals(dish.getNeedOven())) {
+            count++;
+        }
+        if (Boolean.TRUE.equals(dish.getNeedFryPan())) {
+            count++;
+        }
+        if (Boolean.TRUE.equals(dish.getNeedFryPot())) {
+            count++;
+        }
+        return count;
+    }
+}
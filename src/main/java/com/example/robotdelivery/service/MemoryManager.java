@@ -4,268 +4,284 @@ import com.example.robotdelivery.pojo.Dish;
 import com.example.robotdelivery.pojo.Order;
 import com.example.robotdelivery.pojo.Partition;
 import com.example.robotdelivery.pojo.Memory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
+import com.example.robotdelivery.pojo.WorkbenchSnapshot;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
-@Service
+/**
+ * 单个工作台的空间管理：每个工作台一个实例、一把锁，由 WorkbenchRegistry 创建
+ */
 public class MemoryManager {
     private final Memory memory;
-
-    @Autowired // 注入Spring管理的Memory单例
-    public MemoryManager(Memory memory) {
+    // 分区由可插拔的分配器维护（free-list：地址链表 + 按大小索引的空闲表；buddy：伙伴系统）
+    private final WorkbenchAllocator allocator;
+    // 总空闲足够、但没有足够大的连续空闲块导致的分配失败次数（整理前计数）
+    private final AtomicLong fragmentationFailures = new AtomicLong(0);
+    // 对外发布的不可变快照：写方（持有本对象锁）每次变更后整体替换（只含计数），读方无锁读取；
+    // 分区表副本由 getSnapshot 在首次读取该版本时生成
+    private final AtomicReference<WorkbenchSnapshot> snapshot = new AtomicReference<>();
+    private long snapshotVersion = 0;
+    private final int compactMaxMoves; // 每步整理最多搬移的分区数（决定单次停顿上限）
+    private final double compactThreshold; // 外部碎片率达到该阈值才在空闲时整理
+    // 为排队订单预留的分区（订单ID → 分区）及到期时间
+    private final Map<Integer, Partition> reservedPartitions = new HashMap<>();
+    private final Map<Integer, Long> reservationDeadlines = new HashMap<>();
+    private int reservedSpace = 0;
+
+    public MemoryManager(Memory memory, String allocatorName, String placementName,
+                         int compactMaxMoves, double compactThreshold) {
         this.memory = memory;
-        // 初始化分区（仅在分区为空时）
-        if (memory.getPartitions().isEmpty()) {
-            memory.getPartitions().add(new Partition(1, memory.getTotalSpace(), 0));
-        }
-    }
-    /*private void 重新设置所有分区的ID，保证连续性
-     */
-    private void reassignPartitionIds(List<Partition> partitions) {
-        for (int i = 0; i < partitions.size(); i++) {
-            partitions.get(i).setId(i + 1);
-        }
+        this.compactMaxMoves = compactMaxMoves;
+        this.compactThreshold = compactThreshold;
+        this.allocator = WorkbenchAllocator.create(allocatorName, placementName);
+        this.allocator.init(memory.getTotalSpace());
+        publishSnapshot();
+        System.out.println("[MemoryManager] 工作台" + memory.getWorkbenchId() + " 分配器：" + allocator.getName() + "，放置策略：" + allocator.getPlacementName()
+                + "，总空间：" + memory.getTotalSpace());
     }
 
     /**
-     * 检查订单是否已分配该订单
+     * 同步已用空间到 Memory（分配器内部维护计数，O(1)）
+     * 与快照口径一致：预留空间计入已用，订单自身的预留由 getAvailableSpaceFor 单独加回
      */
-    private boolean isOrderAllocated(int orderId) {
-        for (Partition part : memory.getPartitions()) {
-            if (part.isAllocated() && part.getOrderId() == orderId) {
-                return true;
-            }
-        }
-        return false;
+    private int calculateTotalFreeSpace() {
+        memory.setUsedSpace(allocator.getUsedSpace());
+        return memory.getFreeSpace();
     }
 
     /**
-     * 计算总可用空间，并更新Memory的usedSpace
+     * 分区表变更后调用（须持有本对象锁）：同步已用空间并发布新版本快照，O(1)，不复制分区表
      */
-    private int calculateTotalFreeSpace() {
-        int usedSpace = 0;
-        for (Partition part : memory.getPartitions()) {
-            if (part.isAllocated()) {
-                usedSpace += part.getSize();
-            }
-        }
-        memory.setUsedSpace(usedSpace);
-        return memory.getFreeSpace();
+    private void publishSnapshot() {
+        calculateTotalFreeSpace();
+        snapshot.set(new WorkbenchSnapshot(++snapshotVersion, memory.getWorkbenchId(),
+                memory.getTotalSpace(), allocator.getUsedSpace(),
+                allocator.getLargestFreeBlock(), fragmentationFailures.get()));
     }
 
     /**
-     * 根据订单ID分配空间
+     * 根据订单ID分配空间（工作台自身加锁，多个调度线程/烹饪线程并发访问时互斥）
+     * 锁内只记录日志文本，释放锁之后再输出
      */
     public boolean allocateForOrder(Order order) {
+        StringBuilder log = new StringBuilder();
+        boolean allocated = allocateLocked(order, log);
+        if (log.length() > 0) {
+            System.out.print(log);
+        }
+        return allocated;
+    }
+
+    private synchronized boolean allocateLocked(Order order, StringBuilder log) {
         int orderId = order.getOrderId();
         Dish dish = order.getDish();
         if (dish == null) {
-            System.out.println("错误：订单" + orderId + "没有关联菜品");
+            log.append("错误：订单").append(orderId).append("没有关联菜品\n");
             return false;
         }
 
         int requiredSize = dish.getRequiredSpace();
         int totalWorkbenchSize = memory.getTotalSpace();
 
+        // 已为该订单预留空间：直接转为正式分配
+        Partition reserved = reservedPartitions.remove(orderId);
+        if (reserved != null) {
+            reservationDeadlines.remove(orderId);
+            reservedSpace -= reserved.getSize();
+            reserved.setReserved(false);
+            reserved.setDishName(dish.getDishName());
+            publishSnapshot();
+            log.append("订单").append(orderId).append("使用工作台").append(memory.getWorkbenchId()).append("上的预留空间\n");
+            return true;
+        }
+
         // 校验1：订单已分配
-        if (isOrderAllocated(orderId)) {
-            System.out.println("错误：订单ID " + orderId + " 已占用工作台，无法重复分配");
+        if (allocator.isAllocated(orderId)) {
+            log.append("错误：订单ID ").append(orderId).append(" 已占用工作台，无法重复分配\n");
             return false;
         }
 
         // 校验2：需求空间是否超过总空间
         if (requiredSize > totalWorkbenchSize) {
-            System.out.println("错误：订单" + orderId + "所需空间 " + requiredSize + " 超过总工作台空间 " + totalWorkbenchSize);
+            log.append("错误：订单").append(orderId).append("所需空间 ").append(requiredSize)
+                    .append(" 超过总工作台空间 ").append(totalWorkbenchSize).append("\n");
             return false;
         }
 
-        List<Partition> partitions = memory.getPartitions();
-
-        // 寻找最佳适配分区
-        int bestFitIndex = -1;
-        int minExtraSpace = Integer.MAX_VALUE;
-
-        for (int i = 0; i < partitions.size(); i++) {
-            Partition part = partitions.get(i);
-            if (!part.isAllocated() && part.getSize() >= requiredSize) {
-                int extraSpace = part.getSize() - requiredSize;
-                if (extraSpace < minExtraSpace) {
-                    minExtraSpace = extraSpace;
-                    bestFitIndex = i;
-                }
-            }
-        }
-
-        // 处理分配结果
-        if (bestFitIndex != -1) {
-            List<Partition> newPartitions = new ArrayList<>(partitions);
-            Partition bestFitPart = newPartitions.get(bestFitIndex);
-
-            // 分割分区（如果有剩余空间）
-            if (minExtraSpace > 0) {
-                Partition newPart = new Partition(
-                        partitions.size() + 1,
-                        minExtraSpace,
-                        bestFitPart.getStartAddress() + requiredSize
-                );
-                newPartitions.add(bestFitIndex + 1, newPart);
-                bestFitPart.setSize(requiredSize);
-                reassignPartitionIds(newPartitions);
-            }
-
-            // 标记分配状态
-            bestFitPart.setAllocated(true);
-            bestFitPart.setOrderId(orderId);
-            bestFitPart.setDishName(dish.getDishName());
-
-            // 更新Memory中的分区列表
-            memory.setPartitions(newPartitions);
-            calculateTotalFreeSpace();
-
+        // 由分配器查找并切分空闲块
+        Partition allocated = allocator.allocate(orderId, requiredSize, dish.getDishName());
+        if (allocated != null) {
+            publishSnapshot();
             return true;
-        } else {
-            // 所有分区空间不足时的处理
-            handleInsufficientSpace(order);
-            return false;
         }
+        // 所有空闲块都不够大时的处理
+        return handleInsufficientSpace(order, log);
     }
 
     /**
-     * 处理空间不足的情况
+     * 处理空间不足的情况：碎片导致时只做一步有界整理并重试一次（不再整体搬移、不再递归），返回重试是否成功
+     * 剩余的整理由调度线程空闲时的 compactIfFragmented 继续完成
      */
-    private void handleInsufficientSpace(Order order) {
+    private boolean handleInsufficientSpace(Order order, StringBuilder log) {
         Dish dish = order.getDish();
-        if (dish == null) return;
-
         int requiredSize = dish.getRequiredSpace();
-        int totalFreeSpace = calculateTotalFreeSpace();
         int totalWorkbenchSize = memory.getTotalSpace();
+        // 按分配器实际空闲计算（含预留占用），区分碎片与空间确实不足
+        int totalFreeSpace = totalWorkbenchSize - allocator.getUsedSpace();
+        boolean allocated = false;
 
-        System.out.println("\n===== 空间不足处理 =====");
-        System.out.println("订单" + order.getOrderId() + "需求：" + requiredSize + "，总可用空间：" + totalFreeSpace);
+        log.append("\n===== 工作台").append(memory.getWorkbenchId()).append("空间不足处理 =====\n");
+        log.append("订单").append(order.getOrderId()).append("需求：").append(requiredSize).append("，总可用空间：").append(totalFreeSpace)
+                .append("，最大连续空闲块：").append(allocator.getLargestFreeBlock()).append("\n");
 
         // 检查是否是碎片导致的空间不足
         if (totalFreeSpace >= requiredSize) {
-            System.out.println("原因：可用空间分散（碎片过多），尝试整理...");
-            defragmentSpace();
-            calculateTotalFreeSpace();
-
-            System.out.println("碎片整理完成，重新尝试分配...");
-            printMemoryStatus();
-
-            if (allocateForOrder(order)) {
-                System.out.println("整理后分配成功！");
+            fragmentationFailures.incrementAndGet();
+            log.append("原因：可用空间分散（碎片过多），尝试整理...\n");
+            int moved = allocator.compactStep(compactMaxMoves);
+            if (moved > 0) {
+                log.append("本步整理搬移 ").append(moved).append(" 个分区，重新尝试分配...\n");
+                allocated = allocator.allocate(order.getOrderId(), requiredSize, dish.getDishName()) != null;
+                log.append(allocated ? "整理后分配成功！" : "整理后仍无法分配，空闲时继续整理").append("\n");
             } else {
-                System.out.println("整理后仍无法分配，可能是整理逻辑有误或需求过大");
+                log.append("没有可搬移的分区（或分配器 ").append(allocator.getName()).append(" 不支持整理），等待释放后重试\n");
             }
         } else {
             // 总空间确实不足
-            System.out.println("原因：总可用空间不足，建议：");
-            System.out.println("- 优先处理已分配任务以释放空间");
-            System.out.println("- 检查任务需求是否合理（当前总空间：" + totalWorkbenchSize + "）");
+            log.append("原因：总可用空间不足，建议：\n");
+            log.append("- 优先处理已分配任务以释放空间\n");
+            log.append("- 检查任务需求是否合理（当前总空间：").append(totalWorkbenchSize).append("）\n");
         }
-        System.out.println("=======================\n");
+        log.append("=======================\n\n");
+        publishSnapshot();
+        return allocated;
     }
 
     /**
-     * 碎片整理（合并所有未分配分区，并更新已分配分区的地址）
+     * 调度线程空闲时调用：外部碎片率达到阈值才整理一步（最多搬移 compactMaxMoves 个分区）
+     * @return 本步搬移的分区数
      */
-    private void defragmentSpace() {
-        List<Partition> partitions = memory.getPartitions();
-        List<Partition> newPartitions = new ArrayList<>();
-        List<Partition> allocatedParts = new ArrayList<>();
-        int totalWorkbenchSize = memory.getTotalSpace();
-
-        // 收集已分配分区
-        for (Partition part : partitions) {
-            if (part.isAllocated()) {
-                allocatedParts.add(part);
+    public int compactIfFragmented() {
+        int moved;
+        synchronized (this) {
+            if (getExternalFragmentation() < compactThreshold) {
+                return 0;
+            }
+            moved = allocator.compactStep(compactMaxMoves);
+            if (moved > 0) {
+                publishSnapshot();
             }
         }
-
-        // 按起始地址排序已分配分区
-        allocatedParts.sort(Comparator.comparingInt(Partition::getStartAddress));
-
-        // 重新构建分区列表，将已分配分区紧密排列
-        int currentAddress = 0;
-        for (Partition allocated : allocatedParts) {
-            allocated.setStartAddress(currentAddress);
-            newPartitions.add(allocated);
-            currentAddress += allocated.getSize();
+        if (moved > 0) {
+            System.out.println("[MemoryManager] 工作台" + memory.getWorkbenchId() + "空闲整理：搬移 " + moved + " 个分区，最大连续空闲块：" + getLargestFreeBlock());
         }
+        return moved;
+    }
 
-        // 插入末尾的空闲分区（合并了所有碎片空间）
-        if (currentAddress < totalWorkbenchSize) {
-            newPartitions.add(new Partition(
-                    newPartitions.size() + 1,
-                    totalWorkbenchSize - currentAddress,
-                    currentAddress
-            ));
+    /**
+     * 为排队中的订单预留连续空间（不触发整理、不计碎片失败），到期前由 allocateForOrder 直接使用
+     * @return 是否预留成功
+     */
+    public synchronized boolean reserve(Order order, long deadlineMillis) {
+        int orderId = order.getOrderId();
+        Dish dish = order.getDish();
+        if (dish == null || allocator.isAllocated(orderId)) {
+            return false;
+        }
+        Partition partition = allocator.allocate(orderId, dish.getRequiredSpace(), dish.getDishName());
+        if (partition == null) {
+            return false;
         }
+        partition.setReserved(true);
+        reservedPartitions.put(orderId, partition);
+        reservationDeadlines.put(orderId, deadlineMillis);
+        reservedSpace += partition.getSize();
+        publishSnapshot();
+        return true;
+    }
+
+    public synchronized boolean hasReservation(int orderId) {
+        return reservedPartitions.containsKey(orderId);
+    }
 
-        reassignPartitionIds(newPartitions);
-        memory.setPartitions(newPartitions);
+    /**
+     * 该订单在本工作台可用的空间：空闲空间加上为它自己预留的空间（其他订单的预留仍视为已用）
+     * 在同一把锁内读取，预留到期或转正不会导致两次读数不一致
+     */
+    public synchronized int getAvailableSpaceFor(int orderId) {
+        Partition own = reservedPartitions.get(orderId);
+        return memory.getTotalSpace() - allocator.getUsedSpace() + (own != null ? own.getSize() : 0);
     }
 
     /**
-     * 释放订单占用的分区
+     * 释放已到期的预留，返回这些订单ID
      */
-    public boolean releaseOrderPartition(int orderId) {
-        List<Partition> partitions = memory.getPartitions();
-        for (int i = 0; i < partitions.size(); i++) {
-            Partition part = partitions.get(i);
-            if (part.isAllocated() && part.getOrderId() == orderId) {
-                part.setAllocated(false);
-                part.setOrderId(-1);
-                part.setDishName(null);
-
-                // 尝试与前一个分区合并
-                if (i > 0) {
-                    Partition prevPart = partitions.get(i - 1);
-                    if (!prevPart.isAllocated()) {
-                        prevPart.setSize(prevPart.getSize() + part.getSize());
-                        partitions.remove(i);
-                        i--;
-                        part = prevPart;
-                    }
-                }
-
-                // 尝试与后一个分区合并
-                if (i < partitions.size() - 1) {
-                    Partition nextPart = partitions.get(i + 1);
-                    if (!nextPart.isAllocated()) {
-                        part.setSize(part.getSize() + nextPart.getSize());
-                        partitions.remove(i + 1);
-                    }
-                }
-
-                reassignPartitionIds(partitions);
-                memory.setPartitions(partitions);
-                calculateTotalFreeSpace();
-
-                return true;
+    public synchronized List<Integer> expireReservations(long nowMillis) {
+        List<Integer> expired = new ArrayList<>();
+        Iterator<Map.Entry<Integer, Long>> it = reservationDeadlines.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Long> entry = it.next();
+            if (entry.getValue() <= nowMillis) {
+                it.remove();
+                expired.add(entry.getKey());
             }
         }
-        return false;
+        for (Integer orderId : expired) {
+            dropReservation(orderId);
+        }
+        if (!expired.isEmpty()) {
+            publishSnapshot();
+        }
+        return expired;
+    }
+
+    // 撤销预留并归还空间（须持有本对象锁）
+    private void dropReservation(int orderId) {
+        Partition partition = reservedPartitions.remove(orderId);
+        if (partition == null) {
+            return;
+        }
+        reservedSpace -= partition.getSize();
+        partition.setReserved(false);
+        allocator.release(orderId);
+    }
+
+    /**
+     * 释放订单占用的分区（分配器负责与相邻空闲块合并）
+     */
+    public synchronized boolean releaseOrderPartition(int orderId) {
+        if (reservedPartitions.containsKey(orderId)) {
+            reservationDeadlines.remove(orderId);
+            dropReservation(orderId);
+            publishSnapshot();
+            return true;
+        }
+        if (!allocator.release(orderId)) {
+            return false;
+        }
+        publishSnapshot();
+        return true;
     }
 
     /**
      * 打印当前工作台状态
      */
-    public void printMemoryStatus() {
+    public synchronized void printMemoryStatus() {
         int totalWorkbenchSize = memory.getTotalSpace();
 
-        System.out.println("\n===== 工作台状态 =====");
+        System.out.println("\n===== 工作台" + memory.getWorkbenchId() + "状态 =====");
         System.out.println("总空间：" + totalWorkbenchSize +
                 "，已使用：" + memory.getUsedSpace() +
                 "，可用：" + memory.getFreeSpace());
 
         int totalSizeCheck = 0;
-        for (Partition part : memory.getPartitions()) {
+        for (Partition part : allocator.getPartitions()) {
             System.out.println(part);
             totalSizeCheck += part.getSize();
         }
@@ -286,7 +302,64 @@ public class MemoryManager {
         return memory;
     }
 
+    public int getWorkbenchId() {
+        return memory.getWorkbenchId();
+    }
+
+    /**
+     * 当前工作台快照（含分区表，供查询接口使用）：该版本的分区表已生成时无锁返回，
+     * 否则在本对象锁内为最新版本复制一次分区表并发布，之后同一版本的读取直接复用
+     */
+    public WorkbenchSnapshot getSnapshot() {
+        WorkbenchSnapshot current = snapshot.get();
+        if (current.hasPartitions()) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot.get(); // 持锁时快照版本与分区表一致
+            if (!current.hasPartitions()) {
+                current = current.withPartitions(memory.getBaseAddress(), allocator.getPartitions());
+                snapshot.set(current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * 空闲空间（含其他订单的预留视为已用），读当前快照计数，不加锁、不复制分区表
+     */
+    public int getFreeSpace() {
+        return snapshot.get().getFreeSpace();
+    }
+
+    public int getUsedSpace() {
+        return snapshot.get().getUsedSpace();
+    }
+
+    /**
+     * 按起始地址排序的分区列表（来自当前快照，不可修改）
+     */
     public List<Partition> getPartitions() {
-        return memory.getPartitions();
+        return getSnapshot().getPartitions();
+    }
+
+    public int getLargestFreeBlock() {
+        return snapshot.get().getLargestFreeBlock();
+    }
+
+    public String getAllocatorName() {
+        return allocator.getName();
+    }
+
+    public String getPlacementName() {
+        return allocator.getPlacementName();
+    }
+
+    public double getExternalFragmentation() {
+        return snapshot.get().getExternalFragmentation();
+    }
+
+    public long getFragmentationFailures() {
+        return fragmentationFailures.get();
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.robotdelivery.service;
 
 import com.example.robotdelivery.pojo.Memory;
 import com.example.robotdelivery.pojo.Partition;
+import com.example.robotdelivery.pojo.WorkbenchSnapshot;
 import com.example.robotdelivery.pojo.vo.MemoryVO;
 import com.example.robotdelivery.pojo.vo.MemoryVO;
 import com.example.robotdelivery.pojo.vo.WorkstationVo;
@@ -9,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.lang.reflect.Field; // 可以移除此 import
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors; // 可以移除此 import
 import java.util.stream.IntStream;
@@ -19,47 +21,91 @@ import java.util.stream.IntStream;
 @Service
 public class MemoryService {
 
-    private final MemoryManager memoryManager;
+    private final WorkbenchRegistry workbenchRegistry;
 
-    @Autowired // 依赖注入 MemoryManager
-    public MemoryService(MemoryManager memoryManager) {
-        // 确保在 Spring 环境下 MemoryManager 能正确初始化和管理状态
-        this.memoryManager = memoryManager;
+    @Autowired // 依赖注入 WorkbenchRegistry（持有全部工作台的 MemoryManager）
+    public MemoryService(WorkbenchRegistry workbenchRegistry) {
+        this.workbenchRegistry = workbenchRegistry;
     }
 
     /**
-     * 将 MemoryManager 的当前状态封装为 MemoryVO
-     * 供前端查询和可视化使用。
+     * 将全部工作台的当前状态封装为 MemoryVO
+     * 供前端查询和可视化使用：顶层为全部工作台的汇总（分区地址为全局地址，可直接按总空间绘制），
+     * workbenches 为各工作台明细。
      * @return MemoryVO 包含总览信息和分区列表
      */
     public MemoryVO getMemoryStatus() {
         MemoryVO vo = new MemoryVO();
-        Memory memory = memoryManager.getMemory(); // 获取 Memory POJO
+        List<MemoryVO> benchVos = new ArrayList<>();
+        List<Partition> allPartitions = new ArrayList<>();
+        int totalSpace = 0;
+        int usedSpace = 0;
+        int largestFreeBlock = 0;
+        long fragmentationFailures = 0;
 
-        // 1. 填充总览信息
-        vo.setTotalSpace(memory.getTotalSpace());
-        vo.setUsedSpace(memory.getUsedSpace());
-        vo.setFreeSpace(memory.getFreeSpace());
+        for (MemoryManager bench : workbenchRegistry.getWorkbenches()) {
+            // 每个工作台只读取一次快照，保证总览、分区列表和碎片指标来自同一版本（无锁，不与调度线程争用）
+            WorkbenchSnapshot snapshot = bench.getSnapshot();
+            MemoryVO benchVo = toMemoryVO(bench, snapshot);
+            benchVo.setWorkbenchId(snapshot.getWorkbenchId());
+            benchVos.add(benchVo);
+
+            allPartitions.addAll(snapshot.getPartitions());
+            totalSpace += snapshot.getTotalSpace();
+            usedSpace += snapshot.getUsedSpace();
+            largestFreeBlock = Math.max(largestFreeBlock, snapshot.getLargestFreeBlock());
+            fragmentationFailures += snapshot.getFragmentationFailures();
+        }
+
+        // 1. 填充总览信息（全部工作台汇总）
+        vo.setTotalSpace(totalSpace);
+        vo.setUsedSpace(usedSpace);
+        vo.setFreeSpace(totalSpace - usedSpace);
 
         // 2. 填充分区列表
-        // 【修改点】：直接调用 MemoryManager 中新增的公共方法
-        vo.setPartitions(memoryManager.getPartitions());
+        vo.setPartitions(allPartitions);
+
+        // 3. 填充分配策略与碎片指标
+        MemoryManager first = workbenchRegistry.getWorkbenches().get(0);
+        vo.setAllocator(first.getAllocatorName());
+        vo.setPlacementPolicy(first.getPlacementName());
+        vo.setLargestFreeBlock(largestFreeBlock);
+        int totalFree = totalSpace - usedSpace;
+        vo.setExternalFragmentation(totalFree <= 0 ? 0.0 : 1.0 - (double) largestFreeBlock / totalFree);
+        vo.setFragmentationFailures(fragmentationFailures);
+        vo.setWorkbenches(benchVos);
+
+        return vo;
+    }
 
+    private MemoryVO toMemoryVO(MemoryManager bench, WorkbenchSnapshot snapshot) {
+        MemoryVO vo = new MemoryVO();
+        vo.setTotalSpace(snapshot.getTotalSpace());
+        vo.setUsedSpace(snapshot.getUsedSpace());
+        vo.setFreeSpace(snapshot.getFreeSpace());
+        vo.setPartitions(snapshot.getPartitions());
+        vo.setAllocator(bench.getAllocatorName());
+        vo.setPlacementPolicy(bench.getPlacementName());
+        vo.setLargestFreeBlock(snapshot.getLargestFreeBlock());
+        vo.setExternalFragmentation(snapshot.getExternalFragmentation());
+        vo.setFragmentationFailures(snapshot.getFragmentationFailures());
         return vo;
     }
 
     /**
      * 获取工作台分区的详细表格视图数据
      * 专门用于前端表格（视图 B）
-     * @return List<WorkstationVo> 包含每个分区的详细状态
+     * @return List<WorkstationVo> 包含每个分区的详细状态（依次列出各工作台）
      */
-    // MemoryService 中 getWorkstationDetails 方法修改
     public List<WorkstationVo> getWorkstationDetails() {
-        Memory memory = memoryManager.getMemory();
-        List<Partition> partitions = memory.getPartitions();
-
-        return IntStream.range(0, partitions.size())
-                .mapToObj(index -> WorkstationVo.fromMemory(memory, index))
-                .collect(Collectors.toList());
+        List<WorkstationVo> details = new ArrayList<>();
+        for (MemoryManager bench : workbenchRegistry.getWorkbenches()) {
+            Memory memory = bench.getMemory();
+            List<Partition> partitions = bench.getSnapshot().getPartitions();
+            IntStream.range(0, partitions.size())
+                    .mapToObj(index -> WorkstationVo.fromMemory(memory, partitions, index))
+                    .forEach(details::add);
+        }
+        return details;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+
+/**
+ * 多级反馈队列（MLFQ）：
+ * - 初始级别按菜品烹饪时长与各级时间片（quanta）确定：时长不超过第 i 级时间片的进入第 i 级，短菜不排在长菜后面
+ * - 升级：每等待 promoteMs 上升一级（与晚 promoteMs 到达的高一级订单同等竞争），等待时间有界
+ * - 降级：每被银行家检查拒绝 demoteAfter 次下降一级，反复拿不到资源的订单让出队头
+ * 键 = 创建时间(ms) + 级别 × promoteMs，级别越高（数值越大）越靠后
+ */
+@Component
+public class MultiLevelFeedbackPolicy implements OrderSchedulingPolicy {
+
+    public static final String NAME = "mlfq";
+
+    @Value("${robot.scheduler.mlfq.quanta:1500,2500}")
+    private long[] quanta; // 各级时间片（烹饪时长上限，ms，升序），超过最后一级的进入最低级
+
+    @Value("${robot.scheduler.mlfq.promote-ms:3000}")
+    private long promoteMs;
+
+    @Value("${robot.scheduler.mlfq.demote-after:2}")
+    private int demoteAfter;
+
+    @PostConstruct
+    public void init() {
+        Arrays.sort(quanta);
+        System.out.println("[MLFQ] 时间片：" + Arrays.toString(quanta) + "ms，共" + levelCount() + "级，升级间隔："
+                + promoteMs + "ms，拒绝" + demoteAfter + "次降一级");
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long queueKey(Order order) {
+        return OrderSchedulingPolicy.createMillis(order) + level(order) * promoteMs;
+    }
+
+    /**
+     * 订单当前所在级别（0 为最高级）
+     */
+    public int level(Order order) {
+        int level = initialLevel(order);
+        if (demoteAfter > 0) {
+            level += order.getRejections() / demoteAfter;
+        }
+        return Math.min(level, levelCount() - 1);
+    }
+
+    // 按烹饪时长找到第一个能容纳的时间片
+    private int initialLevel(Order order) {
+        Long cookTime = order.getDish() != null ? order.getDish().getCookTime() : null;
+        if (cookTime == null) {
+            return levelCount() - 1;
+        }
+        for (int i = 0; i < quanta.length; i++) {
+            if (cookTime <= quanta[i]) {
+                return i;
+            }
+        }
+        return quanta.length;
+    }
+
+    private int levelCount() {
+        return quanta.length + 1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Partition;
+
+import java.util.NavigableMap;
+
+/**
+ * 循环首次适配：从上次分配结束的位置继续向后找，到末尾后回绕到地址 0（O(n)，分配分布更均匀）
+ */
+public class NextFitPlacement implements PlacementPolicy {
+
+    public static final String NAME = "next";
+
+    // 下次扫描的起始地址（上次分配块的结束地址）
+    private int cursor = 0;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Partition select(Partition head, NavigableMap<Long, Partition> freeBySize, int size) {
+        // 游标可能落在合并后空闲块的中间，从包含游标的块开始
+        Partition start = head;
+        while (start.getNext() != null && start.getNext().getStartAddress() <= cursor) {
+            start = start.getNext();
+        }
+        Partition found = firstFit(start, null, size);
+        if (found == null) {
+            found = firstFit(head, start, size);
+        }
+        return found;
+    }
+
+    @Override
+    public void onAllocated(Partition block) {
+        cursor = block.getStartAddress() + block.getSize();
+    }
+
+    // 在 [from, until) 范围内按地址找第一个足够大的空闲块
+    private static Partition firstFit(Partition from, Partition until, int size) {
+        for (Partition block = from; block != until; block = block.getNext()) {
+            if (!block.isAllocated() && block.getSize() >= size) {
+                return block;
+            }
+        }
+        return null;
+    }
+}
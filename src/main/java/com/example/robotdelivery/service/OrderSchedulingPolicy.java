@@ -0,0 +1,33 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+
+import java.time.ZoneId;
+
+/**
+ * 订单调度策略：决定等待队列中订单的先后顺序
+ * 实现类注册为 Spring Bean 即可被 OrderSchedulingService 发现
+ * 等待队列是按排序键组织的堆，订单在队列中时键不能变化：键只能由订单自身状态（创建时间、菜品、被拒次数等）计算，
+ * 随时间变化的效果（老化、升级）通过把时间折算进键来表达
+ */
+public interface OrderSchedulingPolicy {
+
+    /**
+     * 策略名称（配置、统计时使用）
+     */
+    String getName();
+
+    /**
+     * 订单入队时的排序键，越小越先调度；键相同按订单ID
+     */
+    long queueKey(Order order);
+
+    /**
+     * 订单创建时间（毫秒），缺失时按当前时间
+     */
+    static long createMillis(Order order) {
+        return order.getCreateTime() != null
+                ? order.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 订单调度服务：管理所有 OrderSchedulingPolicy，支持运行时切换（由 ResourceManagerThread 负责重排等待队列），
+ * 并按策略归档已完成订单，供 PerformanceComparisonService 计算各策略的响应时间与吞吐量
+ */
+@Service
+public class OrderSchedulingService {
+
+    @Autowired
+    private List<OrderSchedulingPolicy> policyBeans;
+
+    @Value("${robot.scheduler.policy:priority}")
+    private String defaultPolicy;
+
+    private final Map<String, OrderSchedulingPolicy> policies = new LinkedHashMap<>();
+    private volatile OrderSchedulingPolicy activePolicy;
+
+    // 订单ID → 派发该订单时生效的策略，完成时据此归档
+    private final ConcurrentHashMap<Integer, String> dispatchedBy = new ConcurrentHashMap<>();
+    // 策略 → 该策略下派发并已完成的订单
+    private final Map<String, List<Order>> completedByPolicy = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (OrderSchedulingPolicy policy : policyBeans) {
+            policies.put(policy.getName(), policy);
+            completedByPolicy.put(policy.getName(), new CopyOnWriteArrayList<>());
+        }
+        activePolicy = policies.get(defaultPolicy);
+        if (activePolicy == null) {
+            System.err.println("[OrderScheduling] 未知策略：" + defaultPolicy + "，使用优先级 + 老化");
+            activePolicy = policies.get(AgingPriorityPolicy.NAME);
+        }
+        System.out.println("[OrderScheduling] 可用策略：" + policies.keySet() + "，当前策略：" + activePolicy.getName());
+    }
+
+    public OrderSchedulingPolicy getActivePolicy() {
+        return activePolicy;
+    }
+
+    public String getActivePolicyName() {
+        return activePolicy.getName();
+    }
+
+    public List<String> getPolicyNames() {
+        return new ArrayList<>(policies.keySet());
+    }
+
+    /**
+     * 切换当前策略（之后入队的订单按新策略计算键；已在队列中的订单由调用方重新入队）
+     * @throws IllegalArgumentException 策略不存在
+     */
+    public OrderSchedulingPolicy switchPolicy(String name) {
+        OrderSchedulingPolicy policy = policies.get(name);
+        if (policy == null) {
+            throw new IllegalArgumentException("未知的订单调度策略：" + name + "，可用：" + policies.keySet());
+        }
+        activePolicy = policy;
+        System.out.println("[OrderScheduling] 订单调度策略切换为：" + name);
+        return policy;
+    }
+
+    /**
+     * 订单已派发：记录当时生效的策略
+     */
+    public void recordDispatch(Order order) {
+        dispatchedBy.put(order.getOrderId(), activePolicy.getName());
+    }
+
+    /**
+     * 订单完成：归档到派发它的策略
+     */
+    public void recordCompletion(Order order) {
+        String name = dispatchedBy.remove(order.getOrderId());
+        if (name != null) {
+            completedByPolicy.get(name).add(order);
+        }
+    }
+
+    /**
+     * 各策略已完成的订单（只读遍历）
+     */
+    public Map<String, List<Order>> getCompletedByPolicy() {
+        return completedByPolicy;
+    }
+
+    /**
+     * 订单未通过银行家检查：累计被拒次数（放回队列时由策略重新计算排序键）
+     */
+    public void onRejected(Order order) {
+        order.setRejections(order.getRejections() + 1);
+    }
+}
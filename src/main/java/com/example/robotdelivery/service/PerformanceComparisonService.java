@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 性能对比服务：读内存订单→算指标→写数据库
@@ -19,6 +20,9 @@ public class PerformanceComparisonService {
     @Autowired
     private PerformanceResultMapper performanceResultMapper;
 
+    @Autowired
+    private OrderSchedulingService orderSchedulingService; // 按订单调度策略归档的已完成订单
+
     // 定时任务：每5秒计算一次（可根据需求调整间隔）
     @Scheduled(fixedRate = 5000)
     public void calcAndSavePerformance() {
@@ -35,12 +39,23 @@ public class PerformanceComparisonService {
                 2,
                 "默认模式（DeadlockSimulation）"
         );
+
+        // 按订单调度策略分别计算（算法模式下各策略派发的订单）
+        for (Map.Entry<String, List<Order>> entry : orderSchedulingService.getCompletedByPolicy().entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                calcAndSave(entry.getValue(), 3, "调度策略 " + entry.getKey(), entry.getKey());
+            }
+        }
+    }
+
+    private void calcAndSave(List<Order> completedOrders, int modeType, String modeName) {
+        calcAndSave(completedOrders, modeType, modeName, null);
     }
 
     /**
      * 通用计算+保存方法（核心逻辑）
      */
-    private void calcAndSave(List<Order> completedOrders, int modeType, String modeName) {
+    private void calcAndSave(List<Order> completedOrders, int modeType, String modeName, String policyName) {
         // 空列表直接跳过
         if (completedOrders == null || completedOrders.isEmpty()) {
             System.out.println("[" + modeName + "] 暂无已完成订单，跳过计算");
@@ -49,6 +64,7 @@ public class PerformanceComparisonService {
 
         PerformanceResult result = new PerformanceResult();
         result.setModeType(modeType);
+        result.setPolicyName(policyName);
         int orderCount = completedOrders.size();
         result.setCompletedCount(orderCount);
 
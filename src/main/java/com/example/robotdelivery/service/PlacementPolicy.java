@@ -0,0 +1,56 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Partition;
+
+import java.util.NavigableMap;
+
+/**
+ * 分区放置策略：在空闲块中为一次分配挑选目标块（FreeListAllocator 使用）
+ * 分配器维护两种结构，策略按需选用：
+ * head：按地址排序的分区双向链表表头（空闲与已分配）
+ * freeBySize：freeKey(大小, 起始地址) → 空闲分区
+ */
+public interface PlacementPolicy {
+
+    /**
+     * 策略名称（对应配置 robot.workbench.placement）
+     */
+    String getName();
+
+    /**
+     * 挑选大小不小于 size 的空闲块，没有时返回 null（只读索引，不做修改）
+     */
+    Partition select(Partition head, NavigableMap<Long, Partition> freeBySize, int size);
+
+    /**
+     * 分配完成回调（next-fit 用来记录扫描位置）
+     */
+    default void onAllocated(Partition block) {
+    }
+
+    /**
+     * 空闲块按大小排序的组合键：高 32 位为大小，低 32 位为起始地址
+     */
+    static long freeKey(int size, int startAddress) {
+        return ((long) size << 32) | (startAddress & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 按名称创建策略（next-fit 有状态，每个分配器各自持有一个实例）
+     * @throws IllegalArgumentException 未知名称
+     */
+    static PlacementPolicy create(String name) {
+        switch (name) {
+            case FirstFitPlacement.NAME:
+                return new FirstFitPlacement();
+            case NextFitPlacement.NAME:
+                return new NextFitPlacement();
+            case BestFitPlacement.NAME:
+                return new BestFitPlacement();
+            case WorstFitPlacement.NAME:
+                return new WorstFitPlacement();
+            default:
+                throw new IllegalArgumentException("未知的放置策略：" + name + "，可选：first / next / best / worst");
+        }
+    }
+}
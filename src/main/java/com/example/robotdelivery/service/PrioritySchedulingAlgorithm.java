@@ -2,104 +2,131 @@ package com.example.robotdelivery.service;
 
 import com.example.robotdelivery.pojo.Order;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.PriorityQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.Predicate;
 
 /**
- * 优先级调度算法
- * 对 ResourceManagerThread 的 orderWaitQueue 进行优先级排序
+ * 订单等待队列
+ * ResourceManagerThread 的 orderWaitQueue 是按排序键排序的 PriorityBlockingQueue，入队/出队 O(log n)，不再整体重排
+ * 排序键由当前调度策略（OrderSchedulingPolicy）在入队时计算，键越小越先调度：
+ * 键只与订单自身状态有关，订单在队列中时不变，因此堆不需要随时间重建
  */
 public class PrioritySchedulingAlgorithm
 {
-    private final BlockingQueue<Order> orderQueue; // 阻塞队列引用
-    private final ReentrantLock lock = new ReentrantLock(); // 队列锁
+    // 排序键升序，键相同按订单ID（先创建的先处理）
+    public static final Comparator<Order> BY_QUEUE_KEY = Comparator
+            .comparingLong(Order::getQueueKey)
+            .thenComparing(Order::getOrderId, Comparator.nullsLast(Comparator.naturalOrder()));
 
-    public PrioritySchedulingAlgorithm(BlockingQueue<Order> orderQueue)
+    private final PriorityBlockingQueue<Order> orderQueue; // 阻塞优先队列引用
+
+    public PrioritySchedulingAlgorithm(PriorityBlockingQueue<Order> orderQueue)
     {
         this.orderQueue = orderQueue;
     }
 
     /**
-     * 对队列进行优先级排序（降序），同优先级保持 FIFO
+     * 创建按排序键排序的等待队列
      */
-    public void sortQueue()
+    public static PriorityBlockingQueue<Order> newQueue()
     {
-        lock.lock();
-        try
-        {
-            if (orderQueue.isEmpty()) return;
+        return new PriorityBlockingQueue<>(64, BY_QUEUE_KEY);
+    }
 
-            // 1. 取出所有元素到临时列表
-            List<Order> tempList = new ArrayList<>();
-            orderQueue.drainTo(tempList);
-            /*
-            // 2. 更新优先级（这里可使用简单示例，实际可用计时器逻辑）
-            for (Order order : tempList)
-            {
-                int x = 0; // 暂时赋值0
-                order.updatePriority(x);
-            }
-            */
-            // 3. 按优先级降序，同优先级保持FIFO（orderId升序）
-            Collections.sort(tempList, Comparator
-                    .comparing(Order::getPriority).reversed()
-                    .thenComparing(Order::getOrderId));
+    /**
+     * 入队（O(log n)）：按策略计算排序键（订单此时不在队列中，重新入队时可以安全地更新键）
+     */
+    public void enqueue(Order order, OrderSchedulingPolicy policy)
+    {
+        order.setQueueKey(policy.queueKey(order));
+        orderQueue.offer(order);
+    }
 
-            // 4. 放回队列
-            orderQueue.addAll(tempList);
-        }
-        finally
-        {
-            lock.unlock();
-        }
+    /**
+     * 从队列中取走指定订单（O(n) 查找），已被其他调度线程取走时返回 false
+     */
+    public boolean remove(Order order)
+    {
+        return orderQueue.remove(order);
     }
 
     /**
-     * 打印当前队列状态（优先级降序）
+     * 队列中最先被调度的前 k 个订单（按调度顺序），O(n log k)，不修改队列
      */
-    public void printQueue()
+    public List<Order> top(int k)
+    {
+        return top(k, order -> true);
+    }
+
+    /**
+     * 满足条件的订单中最先被调度的前 k 个（按调度顺序），O(n log k)，不修改队列
+     */
+    public List<Order> top(int k, Predicate<Order> filter)
     {
-        lock.lock();
-        try
+        if (k <= 0 || orderQueue.isEmpty())
+        {
+            return new ArrayList<>();
+        }
+        // 大小为 k 的大顶堆，保留键最小的 k 个
+        PriorityQueue<Order> best = new PriorityQueue<>(k, BY_QUEUE_KEY.reversed());
+        for (Order order : orderQueue)
         {
-            if (orderQueue.isEmpty())
+            if (!filter.test(order))
             {
-                System.out.println("===== 队列为空 =====");
-                return;
+                continue;
             }
-            System.out.println("===== 当前订单队列（优先级降序） =====");
-            for (Order order : orderQueue)
+            best.offer(order);
+            if (best.size() > k)
             {
-                String info = "订单ID: " + order.getOrderId() +
-                        ", 菜品: " + (order.getDish() != null ? order.getDish().getDishName() : "无") +
-                        ", 优先级: " + order.getPriority();
-                System.out.println(info);
+                best.poll();
             }
-            System.out.println("=====================================");
-        }
-        finally
-        {
-            lock.unlock();
         }
+        List<Order> result = new ArrayList<>(best);
+        result.sort(BY_QUEUE_KEY);
+        return result;
     }
 
     /**
-     * 清空队列（测试或重置用）
+     * 按调度顺序排列的队列副本（仅用于打印、模拟对比），不修改队列
      */
-    public void clearQueue()
+    public List<Order> sortedSnapshot()
+    {
+        Order[] orders = orderQueue.toArray(new Order[0]);
+        Arrays.sort(orders, BY_QUEUE_KEY);
+        return new ArrayList<>(Arrays.asList(orders));
+    }
+
+    /**
+     * 打印当前队列状态（按调度顺序）
+     */
+    public void printQueue()
     {
-        lock.lock();
-        try
+        List<Order> orders = sortedSnapshot();
+        if (orders.isEmpty())
         {
-            orderQueue.clear();
+            System.out.println("===== 队列为空 =====");
+            return;
         }
-        finally
+        System.out.println("===== 当前订单队列（按调度顺序） =====");
+        for (Order order : orders)
         {
-            lock.unlock();
+            String info = "订单ID: " + order.getOrderId() +
+                    ", 菜品: " + (order.getDish() != null ? order.getDish().getDishName() : "无") +
+                    ", 优先级: " + order.getPriority();
+            System.out.println(info);
         }
+        System.out.println("=====================================");
+    }
+
+    /**
+     * 清空队列（测试或重置用）
+     */
+    public void clearQueue()
+    {
+        orderQueue.clear();
     }
 }
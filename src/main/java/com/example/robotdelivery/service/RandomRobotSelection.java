@@ -0,0 +1,27 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Robot;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 随机选择（原有行为）
+ */
+@Component
+public class RandomRobotSelection implements RobotSelectionStrategy {
+
+    public static final String NAME = "random";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Robot select(List<Robot> candidates, Order order) {
+        return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+}
@@ -1,10 +1,10 @@
 package com.example.robotdelivery.service;
 
-import com.example.robotdelivery.mapper.RobotRepository;
 import com.example.robotdelivery.pojo.*;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,9 +23,12 @@ import java.util.*;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 
@@ -43,9 +46,6 @@ public class ResourceManagerThread extends Thread {
     @Autowired
     private PlanningService planningService; // 注入规划服务，用于复用打印逻辑
 
-    @Autowired
-    RobotRepository robotRepository;
-
     @Autowired
     private RobotService robotService;
 
@@ -67,25 +67,67 @@ public class ResourceManagerThread extends Thread {
     @Autowired
     private RobotInitializer robotInitializer;
 
-    // 移除本地创建的workbench，改为注入Spring的单例
+    // 多工作台：每个工作台各自的 MemoryManager（分配器 + 锁），按机器人亲和放置、满了溢出到相邻工作台
+    @Autowired
+    private WorkbenchRegistry workbenchRegistry;
+
+    // 工作台空间预留（可选）：为队列前 K 个订单提前占住连续空间，避免大订单饿死
+    @Autowired
+    private SpaceReservationService spaceReservationService;
+
+    // 烹饪执行器：定时器 + 有界完成线程池，替代每单一个线程
     @Autowired
-    private Memory workbench;
+    private CookingExecutor cookingExecutor;
 
-    // 移除手动创建的MemoryManager，改为注入Spring管理的MemoryManager
+    // 机器人内存状态表：选空闲机器人、置忙/置闲都在内存完成，异步回写数据库
     @Autowired
-    private MemoryManager memoryManager;
+    private RobotRegistry robotRegistry;
+
+    // 机器人选择策略（随机 / 轮询 / 最少负载 / 位置亲和），可运行时切换
+    @Autowired
+    private RobotSelectionService robotSelectionService;
 
 
     private List<Tools> allTools;
     private List<Robot> allRobots; // = initRobots();
 
-    private final BlockingQueue<Order> orderWaitQueue = new LinkedBlockingQueue<>();
-    private final Object resourceLock = new Object(); // 资源分配锁
+    // 按调度策略排序键排序的阻塞优先队列：入队/出队 O(log n)，分配失败放回时按策略重新计算的键回到队列
+    private final PriorityBlockingQueue<Order> orderWaitQueue = PrioritySchedulingAlgorithm.newQueue();
+    private final PrioritySchedulingAlgorithm scheduler = new PrioritySchedulingAlgorithm(orderWaitQueue);
+
+    // 订单调度策略（优先级 + 老化 / 多级反馈队列），决定等待队列的排序键
+    @Autowired
+    private OrderSchedulingService orderSchedulingService;
+
+    // 前瞻调度：队头阻塞时从队列前 K 个订单中挑选能立即运行的
+    @Autowired
+    private LookaheadDispatchService lookaheadDispatchService;
+
+    // 同菜品合并烹饪（可选）：队列中同菜品的订单并入队头订单的一次烹饪
+    @Autowired
+    private BatchCookingService batchCookingService;
+
+    // 调度工作线程数（当前线程 + 额外 worker），各线程共享等待队列并发分配资源
+    @Value("${robot.dispatch.workers:2}")
+    private int dispatchWorkers;
+    private final List<Thread> dispatchWorkerThreads = new ArrayList<>();
 
+    // 调度线程无单可取的等待时长，超时即视为空闲，执行一步工作台整理
+    @Value("${robot.workbench.compact.idle-ms:200}")
+    private long compactIdleMs;
 
-    private long lastPrintTime = 0;
+    // 调度事件：资源不足时调度线程挂起，由 releaseResource / 新订单到达 唤醒
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private final Condition dispatchSignal = dispatchLock.newCondition();
+    private long dispatchEpoch = 0; // 每次事件自增，挂起前记录，防止丢失唤醒
+    private static final long MAX_PARK_MS = 1000; // 兜底挂起上限（防止数据库等外部状态变化错过事件）
+
+
+    private volatile long lastPrintTime = 0;
     private static final long PRINT_INTERVAL = 500;
-    private static final int TARGET_ROBOT_COUNT = 4; // 目标机器人数量：4个
+    private static final int PRINT_ROBOT_LIMIT = 16;
+    @Value("${robot.fleet.size:4}")
+    private int fleetSize; // 启动时的机器人编队规模（运行中可通过 RobotFleetService 增减）
 
     //新增：算法模式-内存已完成订单列表（线程安全，供性能服务读取）
     public static final java.util.concurrent.CopyOnWriteArrayList<Order> ALG_COMPLETED_ORDERS = new java.util.concurrent.CopyOnWriteArrayList<>();
@@ -184,7 +226,7 @@ public class ResourceManagerThread extends Thread {
 
         // 1. 等待机器人初始化完成（核心修改：使用独立初始化器）
         waitForRobotInitialization();
-        if (allRobots == null || allRobots.size() != 4) {
+        if (allRobots == null || allRobots.isEmpty()) {
             System.err.println("致命错误：机器人初始化失败，线程终止");
             return;
         }
@@ -213,83 +255,81 @@ public class ResourceManagerThread extends Thread {
         }
 
 
-        // 3. 启动日志（适配4个机器人）
+        // 3. 启动日志
         System.out.println("\n===== 资源管理线程启动成功 =====");
-        System.out.println("初始资源：" +"烤箱" +"煎锅"+"炸锅," +
-                TARGET_ROBOT_COUNT + "个机器人、工作区" + workbench.getTotalSpace() + "空间");
-        memoryManager.printMemoryStatus();
+        System.out.println("初始资源：工具" + toolManager.activeCounts() + "，" +
+ allRobots.size() + "个机器人、" + workbenchRegistry.getWorkbenches().size() + "个工作台共" + workbenchRegistry.getTotalSpace() + "空间");
+        workbenchRegistry.printMemoryStatus();
         System.out.println("===============================\n");
 
-        final long LOOP_DELAY = 1000;
-
         // 2. 优先加载数据库中未处理的订单到阻塞队列
         loadPendingOrdersFromDB();
 
+        // 3. 启动额外的调度工作线程，当前线程作为第 0 号调度线程
+        startDispatchWorkers();
+        try {
+            dispatchLoop();
+        } finally {
+            stopDispatchWorkers();
+        }
+    }
+
+    /**
+     * 调度主循环：多个调度线程并发执行，取单 → 选机器人 → 安全检查 → 分配资源
+     * 已取出的订单与已预占的机器人在 finally 中兜底归还：任何路径（含未预期异常）都不会丢单或永久占用机器人
+     */
+    private void dispatchLoop() {
+        final long LOOP_DELAY = 1000;
+
         while (!Thread.currentThread().isInterrupted()) {
+            Order order = null;     // 已取出、尚未放回或派发的订单
+            Robot freeRobot = null; // 已预占、尚未派发的机器人
             try {
-                Order order = orderWaitQueue.take();
-                if (order == null || order.getDish() == null) {
-                    System.out.println("跳过无效订单（订单或菜品为空）");
-                    Thread.sleep(LOOP_DELAY);
+                order = orderWaitQueue.poll(compactIdleMs, TimeUnit.MILLISECONDS);
+                if (order == null) {
+                    // 队列空闲：趁机做一步有界的工作台碎片整理，腾出连续空间后唤醒等待中的调度
+                    if (workbenchRegistry.compactIfFragmented() > 0) {
+                        signalDispatcher();
+                    }
+                    spaceReservationService.refresh(scheduler); // 回收到期预留
                     continue;
                 }
-                // 定义并赋值dish变量
+                // 记录取单时的事件序号：之后若资源不足，只有在此之后发生的释放事件才会唤醒
+                long observedEpoch = currentDispatchEpoch();
                 Dish dish = order.getDish();
-                // 新增：空指针防护（数据库查询的dish可能缺少requiredSpace等属性）
-                if (dish == null) {
-                    System.out.println("订单" + order.getOrderId() + "的菜品为null，跳过处理");
-                    Thread.sleep(LOOP_DELAY);
+                if (dish == null || dish.getRequiredSpace() == null) {
+                    System.out.println("订单" + order.getOrderId() + "菜品或菜品空间未设置，跳过处理");
+                    order = null;
                     continue;
                 }
-                // 再判断 requiredSpace
-                if (dish.getRequiredSpace() == null) {
-                    System.out.println("订单" + order.getOrderId() + "菜品空间未设置，跳过处理");
-                    Thread.sleep(LOOP_DELAY);
+                // 前瞻调度：队头暂时拿不到空闲工具/连续空间时，改派队列前 K 个订单中现在就能运行的（受公平窗口限制）
+                order = lookaheadDispatchService.choose(order, scheduler, orderSchedulingService.getActivePolicy());
+                // 合并烹饪：把队列中同菜品的订单并入本次派发（派发失败时随队头一起放回队列）
+                batchCookingService.collect(order, scheduler, orderSchedulingService.getActivePolicy());
+
+                freeRobot = findFreeRobot(order);
+                boolean dispatched = freeRobot != null && dispatchToRobot(freeRobot, order);
+                lookaheadDispatchService.onDispatchResult(order, dispatched);
+                if (dispatched) {
+                    freeRobot = null;
+                    order = null;
+                    printResourceStatus();
                     continue;
                 }
-
-
-                Robot freeRobot = findFreeRobot();
+                // 本次未能派发：归还机器人预占，订单放回队列，挂起直到有资源释放事件
                 if (freeRobot == null) {
-                    orderWaitQueue.offer(order);
-                    System.out.println("无空闲机器人，订单" + order.getOrderId() + "放回等待队列");
-                    Thread.sleep(LOOP_DELAY);
-                    continue;
-                }
-
-                // 银行家算法安全检查
-                boolean isSafe = bankerAlgorithm.isResourceSafe(
-                        freeRobot,
-                        order,
-                        allTools.stream().filter(t -> t.getToolStatus() == Tools.STATUS_FREE).collect(Collectors.toList()),
-                        allRobots,
-                        workbench
-                );
-                if (isSafe) {
-                    //新加入执行从仓库拿取食材的路径规划 加在银行家算法后面
-                    OrderScheduleResult orderScheduleResult = diskScheduler.handleOrderSchedule(order);
-                    if (orderScheduleResult == null) {
-                        System.out.println("仓库路径规划失败，订单" + order.getOrderId() + "放回等待队列");
-                        orderWaitQueue.offer(order);
-                        Thread.sleep(LOOP_DELAY);
-                        continue;
-                    }
-
-                    //执行资源分配
-                    boolean allocateSuccess = allocateResource(freeRobot, order);
-                    if (allocateSuccess) {
-                        simulateOrderProcessing(freeRobot, order);
-                    }
-                }
-                else {
-                    orderWaitQueue.offer(order);
-                    System.out.println("资源不足/不安全，订单" + order.getOrderId() + "放回等待队列");
-                    Thread.sleep(LOOP_DELAY);
+                    System.out.println("无空闲机器人，订单" + order.getOrderId() + "放回队头等待资源释放");
+                } else {
+                    robotRegistry.unclaim(freeRobot);
+                    robotSelectionService.cancelDispatch(order);
+                    freeRobot = null;
                 }
-                printResourceStatus();
+                requeue(order);
+                order = null;
+                awaitDispatchSignal(observedEpoch);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                System.out.println("资源管理线程停止");
+                System.out.println("调度线程" + Thread.currentThread().getName() + "停止");
                 break;
             } catch (Exception e) {
                 System.err.println("资源管理线程发生未预期异常：" + e.getMessage());
@@ -299,25 +339,172 @@ public class ResourceManagerThread extends Thread {
                 } catch (InterruptedException ex) {
                     Thread.currentThread().interrupt();
                 }
+            } finally {
+                if (freeRobot != null) {
+                    robotRegistry.unclaim(freeRobot);
+                    robotSelectionService.cancelDispatch(order);
+                }
+                if (order != null) {
+                    lookaheadDispatchService.onDispatchResult(order, false);
+                    requeue(order); // 连同并入本批的订单一起放回，不能丢失
+                }
             }
         }
     }
 
+    /**
+     * 对已预占的机器人执行路径规划、安全检查与资源分配，成功派发返回 true
+     * 返回 false 时订单未占用任何资源，由调度循环归还机器人并把订单放回队列
+     */
+    private boolean dispatchToRobot(Robot freeRobot, Order order) {
+        // 仓库路径规划只读取食材位置，不占用资源，放在准入临界区之外
+        OrderScheduleResult orderScheduleResult = diskScheduler.handleOrderSchedule(order);
+        if (orderScheduleResult == null) {
+            System.out.println("仓库路径规划失败，订单" + order.getOrderId() + "放回队头");
+            return false;
+        }
 
+        // 准入不经过全局锁：先用无锁读取的空闲计数做一次廉价预检（资源明显不足时不去争工具与工作台的锁），
+        // 是否真正准入由 allocateResource 中的工具整体预留与工作台分配决定（各自加锁、全有或全无），失败即回滚
+        boolean admitted = bankerAlgorithm.fitsAvailable(order, workbenchRegistry.candidateFor(freeRobot, order))
+                && allocateResource(freeRobot, order);
+        if (!admitted) {
+            System.out.println("资源不足，订单" + order.getOrderId() + "放回队列等待资源释放");
+            orderSchedulingService.onRejected(order); // 多级反馈队列据被拒次数降级
+            return false;
+        }
 
-    public void submitOrder(Order order) {
+        // 分配之后的写库与登记任一步失败都回滚本次分配，避免机器人、工具与工作台分区永久占用
+        List<Order> followers = batchCookingService.getFollowers(order.getOrderId());
         try {
-            if (order == null || order.getDish() == null) {
-                System.out.println("拒绝提交无效订单：order或dish为null");
-                return;
+            // 将订单状态从PENDING改为COOKING（标记为已分配）
+            Order cookingOrder = orderService.updateOrderToCooking(order);
+            System.out.println("订单" + cookingOrder.getOrderId() + "状态更新为：" + cookingOrder.getOrderStatus());
+            for (Order follower : followers) {
+                orderService.updateOrderToCooking(follower);
+            }
+            robotSelectionService.recordDispatch(order);
+            orderSchedulingService.recordDispatch(order);
+            spaceReservationService.onDispatched(order);
+            for (Order follower : followers) {
+                orderSchedulingService.recordDispatch(follower);
+                spaceReservationService.onDispatched(follower);
+            }
+            simulateOrderProcessing(freeRobot, order);
+            return true;
+        } catch (Exception e) {
+            System.err.println("订单" + order.getOrderId() + "派发失败，回滚资源分配：" + e.getMessage());
+            rollbackAllocation(freeRobot, order, followers);
+            return false;
+        }
+    }
+
+    /**
+     * 撤销一次已成功的资源分配（工具、工作台分区、机器人状态），并把订单状态恢复为待处理
+     */
+    private void rollbackAllocation(Robot robot, Order order, List<Order> followers) {
+        List<Tools> heldTools = new ArrayList<>();
+        for (Tools tool : new Tools[]{robot.getOccupiedOven(), robot.getOccupiedFryPan(), robot.getOccupiedFryPot()}) {
+            if (tool != null) {
+                heldTools.add(tool);
             }
-            orderWaitQueue.put(order);
-            System.out.println("订单" + order.getOrderId() + "（菜品：" + order.getDish().getDishName() + "）提交成功");
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        }
+        rollbackResources(heldTools, robot, true, order.getOrderId());
+        robotSelectionService.cancelDispatch(order); // recordDispatch 之后回滚：该订单不会以此策略完成
+        order.setOrderStatus(Order.OrderStatus.PENDING);
+        for (Order follower : followers) {
+            follower.setOrderStatus(Order.OrderStatus.PENDING);
+        }
+        try {
+            orderService.updateOrderStatus(order.getOrderId(), Order.OrderStatus.PENDING);
+            for (Order follower : followers) {
+                orderService.updateOrderStatus(follower.getOrderId(), Order.OrderStatus.PENDING);
+            }
+        } catch (Exception e) {
+            System.err.println("订单状态恢复为待处理失败：" + e.getMessage());
+        }
+    }
+
+    // 并入该订单的同菜品订单放回等待队列
+    private void requeueFollowers(Order order) {
+        for (Order follower : batchCookingService.takeFollowers(order.getOrderId())) {
+            scheduler.enqueue(follower, orderSchedulingService.getActivePolicy());
+        }
+    }
+
+    private void startDispatchWorkers() {
+        for (int i = 1; i < dispatchWorkers; i++) {
+            Thread worker = new Thread(this::dispatchLoop, "Robot-delivery-Dispatcher-" + i);
+            worker.start();
+            dispatchWorkerThreads.add(worker);
+        }
+        System.out.println("调度线程已启动，共" + Math.max(1, dispatchWorkers) + "个");
+    }
+
+    private void stopDispatchWorkers() {
+        for (Thread worker : dispatchWorkerThreads) {
+            worker.interrupt();
+        }
+        dispatchWorkerThreads.clear();
+    }
+
+    /**
+     * 订单暂时无法调度：按当前策略放回队列，并入本批的同菜品订单也一并放回
+     */
+    private void requeue(Order order) {
+        scheduler.enqueue(order, orderSchedulingService.getActivePolicy());
+        requeueFollowers(order);
+    }
+
+    private long currentDispatchEpoch() {
+        dispatchLock.lock();
+        try {
+            return dispatchEpoch;
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * 挂起调度线程，直到 observedEpoch 之后发生了资源释放/新订单事件（最多等待 MAX_PARK_MS）
+     */
+    private void awaitDispatchSignal(long observedEpoch) throws InterruptedException {
+        dispatchLock.lock();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(MAX_PARK_MS);
+            while (dispatchEpoch == observedEpoch && remainingNanos > 0) {
+                remainingNanos = dispatchSignal.awaitNanos(remainingNanos);
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * 发布调度事件（资源释放、新订单到达），立即唤醒挂起的调度线程重新评估队头
+     */
+    public void signalDispatcher() {
+        dispatchLock.lock();
+        try {
+            dispatchEpoch++;
+            dispatchSignal.signalAll();
+        } finally {
+            dispatchLock.unlock();
         }
     }
 
+
+
+    public void submitOrder(Order order) {
+        if (order == null || order.getDish() == null) {
+            System.out.println("拒绝提交无效订单：order或dish为null");
+            return;
+        }
+        scheduler.enqueue(order, orderSchedulingService.getActivePolicy()); // 无界优先队列，入队不阻塞
+        signalDispatcher();
+        System.out.println("订单" + order.getOrderId() + "（菜品：" + order.getDish().getDishName() + "）提交成功");
+    }
+
     /**
      * 等待机器人初始化完成（带重试机制）
      */
@@ -327,12 +514,15 @@ public class ResourceManagerThread extends Thread {
             try {
                 if (robotInitializer.isInitialized()) {
                     // 初始化已完成，直接获取机器人
-                    allRobots = robotInitializer.initRobots();
+                    robotRegistry.load(robotInitializer.initRobots());
+                    allRobots = robotRegistry.getAllRobots();
                     return;
                 }
-                // 未完成，调用初始化方法
-                allRobots = robotInitializer.initRobots();
-                if (allRobots.size() == 4) {
+                // 未完成，调用初始化方法，结果载入内存状态表（调度线程共享同一批机器人对象）
+                robotRegistry.load(robotInitializer.initRobots());
+                allRobots = robotRegistry.getAllRobots();
+                // 运行中注册的机器人会让数量超过启动规模，达到即视为完成
+                if (allRobots.size() >= fleetSize) {
                     return;
                 }
             } catch (Exception e) {
@@ -369,139 +559,93 @@ public class ResourceManagerThread extends Thread {
                     System.out.println("跳过无效未处理订单，ID：" + (order != null ? order.getOrderId() : "未知"));
                     continue;
                 }
-                orderWaitQueue.put(order); // 加入队列（FIFO，先加载的先处理）
+                scheduler.enqueue(order, orderSchedulingService.getActivePolicy()); // 按当前调度策略入队
                 System.out.println("已加载数据库未处理订单：ID=" + order.getOrderId() + "，状态=" + order.getOrderStatus());
             }
+            System.out.println("共加载 " + pendingOrders.size() + " 个未处理订单，已按调度策略入队");
 
-            // 3. 加载完成后，对队列进行优先级排序（和新订单逻辑一致）
-            PrioritySchedulingAlgorithm scheduler = new PrioritySchedulingAlgorithm(orderWaitQueue);
-            scheduler.sortQueue();
-            System.out.println("共加载 " + pendingOrders.size() + " 个未处理订单，已完成优先级排序");
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("加载未处理订单时被中断：" + e.getMessage());
         } catch (Exception e) {
             System.err.println("加载未处理订单失败：" + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * 为机器人分配订单所需的全部资源：工具整体预留（按工具类型各自加锁）+ 工作台分配（按工作台各自加锁），
+     * 任一步失败即回滚已拿到的部分，返回 false 时不占用任何资源
+     * 机器人锁内只做状态变更，日志与回滚在锁外进行
+     */
     private boolean allocateResource(Robot robot, Order order) {
-        // 使用resourceLock保证内存资源分配的原子性（工具、工作台等）
-        synchronized (resourceLock) {
-            //新增：机器人专属锁（关键！同一机器人的分配/释放操作互斥）
-            // 锁对象：通过机器人ID获取专属锁
-            synchronized (getRobotLock(robot.getRobotId())) {
-                Dish dish = order.getDish();
-                List<Tools> allocatedTools = new ArrayList<>();
-                boolean workspaceAllocated = false;
-
-                System.out.println("\n--- 尝试为订单" + order.getOrderId() + "（菜品：" + dish.getDishName() + "，空间：" + dish.getRequiredSpace() + "）分配资源 ---");
+        Dish dish = order.getDish();
+        EnumSet<Tools.ToolType> neededTools = requiredToolTypes(dish);
+        List<Tools> allocatedTools = new ArrayList<>();
+        boolean workspaceAllocated = false;
+        MemoryManager bench = null;
+        String failure = null;
 
-                try {
-                    // 1. 工作台内存动态分配
-                    if (!memoryManager.allocateForOrder(order)) {
-                        System.out.println("工作区空间分配失败（动态分配），订单" + order.getOrderId() + "放回等待队列");
-                        orderWaitQueue.offer(order);
-                        return false;
-                    }
-                    robot.setOccupiedWorkbench(workbench);
-                    workspaceAllocated = true;
-                    System.out.println("工作区动态分配成功");
-                    memoryManager.printMemoryStatus();
-
-                    // 2. 烤箱分配
-                    if (dish.getNeedOven()) {
-                        List<Tools> freeOvens = allTools.stream()
-                                .filter(t -> t.getToolType() == Tools.ToolType.OVEN && t.getToolStatus() == Tools.STATUS_FREE)
-                                .collect(Collectors.toList());
-                        if (freeOvens.isEmpty()) {
-                            System.out.println("无空闲烤箱，订单" + order.getOrderId() + "放回等待队列");
-                            orderWaitQueue.offer(order);
-                            rollbackResources(allocatedTools, robot, workspaceAllocated, order.getOrderId());
-                            return false;
-                        }
-                        Tools oven = freeOvens.get(0);
-                        oven.setToolStatus(Tools.STATUS_OCCUPIED);
-                        oven.setOccupiedByRobotId(robot.getRobotId());
-                        robot.setOccupiedOven(oven);
-                        allocatedTools.add(oven);
-                        System.out.println("烤箱" + oven.getToolId() + "预分配成功");
-                    }
+        System.out.println("\n--- 尝试为订单" + order.getOrderId() + "（菜品：" + dish.getDishName() + "，空间：" + dish.getRequiredSpace() + "）分配资源 ---");
 
-                    // 3. 煎锅分配
-                    if (dish.getNeedFryPan()) {
-                        List<Tools> freeFryPans = allTools.stream()
-                                .filter(t -> t.getToolType() == Tools.ToolType.FRY_PAN && t.getToolStatus() == Tools.STATUS_FREE)
-                                .collect(Collectors.toList());
-                        if (freeFryPans.isEmpty()) {
-                            System.out.println("无空闲煎锅，订单" + order.getOrderId() + "放回等待队列");
-                            orderWaitQueue.offer(order);
-                            rollbackResources(allocatedTools, robot, workspaceAllocated, order.getOrderId());
-                            return false;
-                        }
-                        Tools fryPan = freeFryPans.get(0);
-                        fryPan.setToolStatus(Tools.STATUS_OCCUPIED);
-                        fryPan.setOccupiedByRobotId(robot.getRobotId());
-                        robot.setOccupiedFryPan(fryPan);
-                        allocatedTools.add(fryPan);
-                        System.out.println("煎锅" + fryPan.getToolId() + "预分配成功");
-                    }
-
-                    // 4. 炸锅分配
-                    if (dish.getNeedFryPot() != null && dish.getNeedFryPot()) {
-                        List<Tools> freeFryPots = allTools.stream()
-                                .filter(t -> t.getToolType() == Tools.ToolType.FRY_POT && t.getToolStatus() == Tools.STATUS_FREE)
-                                .collect(Collectors.toList());
-                        if (freeFryPots.isEmpty()) {
-                            System.out.println("无空闲炸锅，订单" + order.getOrderId() + "放回等待队列");
-                            orderWaitQueue.offer(order);
-                            rollbackResources(allocatedTools, robot, workspaceAllocated, dish.getDishId());
-                            return false;
-                        }
-                        Tools fryPot = freeFryPots.get(0);
-                        fryPot.setToolStatus(Tools.STATUS_OCCUPIED);
-                        fryPot.setOccupiedByRobotId(robot.getRobotId());
-                        robot.setOccupiedFryPot(fryPot);
-                        allocatedTools.add(fryPot);
-                        System.out.println("炸锅" + fryPot.getToolId() + "预分配成功");
+        //机器人专属锁（同一机器人的分配/释放操作互斥）
+        synchronized (getRobotLock(robot.getRobotId())) {
+            try {
+                // 1. 工具整体预留：全部拿到或一个不占
+                EnumMap<Tools.ToolType, Tools> reservedTools = toolManager.reserveAll(neededTools, robot.getRobotId());
+                if (reservedTools == null) {
+                    failure = "工具不足（需要" + neededTools + "）";
+                } else {
+                    robot.setOccupiedOven(reservedTools.get(Tools.ToolType.OVEN));
+                    robot.setOccupiedFryPan(reservedTools.get(Tools.ToolType.FRY_PAN));
+                    robot.setOccupiedFryPot(reservedTools.get(Tools.ToolType.FRY_POT));
+                    allocatedTools.addAll(reservedTools.values());
+
+                    // 2. 工作台内存动态分配（本地工作台优先，放不下溢出到相邻工作台）
+                    bench = workbenchRegistry.allocateForOrder(robot, order);
+                    if (bench == null) {
+                        failure = "工作区空间分配失败（动态分配）";
+                    } else {
+                        robot.setOccupiedWorkbench(bench.getMemory());
+                        workspaceAllocated = true;
+                        // 3. 机器人置为忙碌（内存状态表，数据库异步回写）
+                        robotRegistry.markBusy(robot, order);
                     }
-
-                // 5. 调用路径规划服务
-               // System.out.println("[资源分配] 调用PlanningService生成路径规划结果：");
-               // planningService.planForLatestOrders();
-
-                // 3. 调用 RobotService 完成机器人状态更新（核心修改）
-                Robot updatedRobot = robotService.updateRobotToBusy(robot.getRobotId(), order);
-                syncRobotToMemory(updatedRobot); // 同步内存状态
-                robot.setCurrentOrder(order); // 同步传入的 robot 对象
-
-                // 3. 新增：将订单状态从PENDING改为COOKING（标记为已分配）
-                Order cookingOrder = orderService.updateOrderToCooking(order);
-                System.out.println("订单" + cookingOrder.getOrderId() + "状态更新为：" + cookingOrder.getOrderStatus());
-
-                System.out.println("机器人" + robot.getRobotId() + "分配资源成功，事务已提交");
-                return true;
-            } catch (ObjectOptimisticLockingFailureException e) {
-                // 捕获乐观锁冲突异常（版本号不匹配）
-                System.err.println("资源分配冲突：机器人" + robot.getRobotId() + "被其他事务修改，触发回滚");
-                rollbackResources(allocatedTools, robot, workspaceAllocated, dish.getDishId());
-                // 将订单放回队列，等待重试
-                orderWaitQueue.offer(order);
-                return false;
+                }
             } catch (Exception e) {
-                // 其他异常（如机器人已被占用、数据库错误等）
-                System.err.println("资源分配异常，触发回滚: " + e.getMessage());
-                rollbackResources(allocatedTools, robot, workspaceAllocated, dish.getDishId());
-                // 非冲突异常，可根据需要决定是否放回队列
-                orderWaitQueue.offer(order);
-                return false;
+                failure = "资源分配异常：" + e.getMessage();
             }
+        }
+
+        if (failure != null) {
+            System.out.println(failure + "，订单" + order.getOrderId() + "放回等待队列");
+            if (!allocatedTools.isEmpty() || workspaceAllocated) {
+                rollbackResources(allocatedTools, robot, workspaceAllocated, order.getOrderId());
             }
+            // 由调度循环将订单放回队列，等待重试
+            return false;
+        }
+        // 订单状态改为COOKING由 dispatchToRobot 在分配之后写库
+        System.out.println("工具预留成功：" + neededTools + "，工作区动态分配成功（工作台" + bench.getWorkbenchId()
+                + "，已用：" + bench.getUsedSpace() + "/" + bench.getTotalWorkbenchSize() + "）");
+        System.out.println("机器人" + robot.getRobotId() + "分配资源成功");
+        return true;
+    }
 
+    /**
+     * 菜品需要的工具类型集合
+     */
+    private static EnumSet<Tools.ToolType> requiredToolTypes(Dish dish) {
+        EnumSet<Tools.ToolType> types = EnumSet.noneOf(Tools.ToolType.class);
+        if (Boolean.TRUE.equals(dish.getNeedOven())) {
+            types.add(Tools.ToolType.OVEN);
         }
+        if (Boolean.TRUE.equals(dish.getNeedFryPan())) {
+            types.add(Tools.ToolType.FRY_PAN);
+        }
+        if (Boolean.TRUE.equals(dish.getNeedFryPot())) {
+            types.add(Tools.ToolType.FRY_POT);
+        }
+        return types;
     }
+
     /**
      * 回滚所有已分配的资源（工具和工作区）
      * @param allocatedTools 已分配的工具列表
@@ -516,8 +660,7 @@ public class ResourceManagerThread extends Thread {
         // 1. 工具回滚（新增炸锅回滚）
         if (!allocatedTools.isEmpty()) {
             for (Tools tool : allocatedTools) {
-                tool.setToolStatus(Tools.STATUS_FREE);
-                tool.setOccupiedByRobotId(null);
+                toolManager.release(tool);
                 if (tool.getToolType() == Tools.ToolType.OVEN) {
                     robot.setOccupiedOven(null);
                 } else if (tool.getToolType() == Tools.ToolType.FRY_PAN) {
@@ -531,7 +674,7 @@ public class ResourceManagerThread extends Thread {
 
         // 2. 回滚工作区资源 (修改为调用 MemoryManager 释放)
         if (workspaceAllocated) {
-            if (memoryManager.releaseOrderPartition(orderId)) {
+            if (workbenchRegistry.releaseOrderPartition(orderId)) {
                 System.out.println("已回滚工作区内存（菜肴ID:" + orderId + "）");
             } else {
                 System.err.println("!!! 警告：工作区内存回滚失败（菜肴ID:" + orderId + "）!!! ");
@@ -539,158 +682,145 @@ public class ResourceManagerThread extends Thread {
             robot.setOccupiedWorkbench(null); // 机器人解绑
         }
 
-        // 3. 重置机器人状态
-        robot.setRobotStatus(Robot.STATUS_FREE);
-        robot.setCurrentOrder(null);
-        // robotRepository.save(robot);
+        // 3. 重置机器人状态（预占由调度循环归还空闲队列）
+        robotRegistry.markIdle(robot);
     }
 
     private void releaseResource(Robot robot) {
         System.out.println("=== 开始执行 releaseResource，机器人ID：" + robot.getRobotId() + " ===");
-        synchronized (resourceLock) {
-            synchronized (getRobotLock(robot.getRobotId())) {
-                System.out.println("开始释放机器人" + robot.getRobotId() + "的资源");
-                Order order = robot.getCurrentOrder();
-                Dish dish = null;
-                Integer robotId = robot.getRobotId(); // 提前获取机器人ID，避免后续空指针
-
-                // 步骤1：确保订单和菜品非空（原有逻辑不变）
-                if (order == null || order.getDish() == null) {
-                    Robot dbRobot = robotRepository.findById(robotId)
-                            .orElseThrow(() -> new RuntimeException("机器人不存在"));
-                    order = dbRobot.getCurrentOrder();
-                    dish = order != null ? order.getDish() : null;
+        try {
+            releaseRobotResources(robot);
+        } finally {
+            // 资源已归还（即使中途出现异常）：先为队头订单圈住空出来的连续空间，再唤醒调度线程评估队头订单
+            spaceReservationService.refresh(scheduler);
+            signalDispatcher();
+        }
+    }
+
+    private void releaseRobotResources(Robot robot) {
+        synchronized (getRobotLock(robot.getRobotId())) {
+            System.out.println("开始释放机器人" + robot.getRobotId() + "的资源");
+            Order order = robot.getCurrentOrder();
+            Dish dish = null;
+            Integer robotId = robot.getRobotId(); // 提前获取机器人ID，避免后续空指针
+
+            // 步骤1：确保订单和菜品非空：传入的机器人对象没有订单时，以内存状态表为准（不查询数据库）
+            if (order == null || order.getDish() == null) {
+                Robot registered = robotRegistry.getRobot(robotId);
+                if (registered != null && registered.getCurrentOrder() != null) {
+                    order = registered.getCurrentOrder();
                     robot.setCurrentOrder(order);
-                    robot.setRobotStatus(dbRobot.getRobotStatus());
-                    System.out.println("警告：内存订单为空，已从数据库刷新状态");
-                } else {
-                    dish = order.getDish();
                 }
+                dish = order != null ? order.getDish() : null;
+                System.out.println("警告：机器人" + robotId + "内存订单为空，已从内存状态表刷新");
+            } else {
+                dish = order.getDish();
+            }
 
-                // 步骤2：工具和工作区释放（原有逻辑不变）
-                // --- 工具资源释放 ---
-                if (robot.getOccupiedOven() != null) {
-                    Tools oven = robot.getOccupiedOven();
-                    oven.setToolStatus(Tools.STATUS_FREE);
-                    oven.setOccupiedByRobotId(null);
-                    robot.setOccupiedOven(null);
-                }
-                if (robot.getOccupiedFryPan() != null) {
-                    Tools fryPan = robot.getOccupiedFryPan();
-                    fryPan.setToolStatus(Tools.STATUS_FREE);
-                    fryPan.setOccupiedByRobotId(null);
-                    robot.setOccupiedFryPan(null);
-                }
-                if (robot.getOccupiedFryPot() != null) {
-                    Tools fryPot = robot.getOccupiedFryPot();
-                    fryPot.setToolStatus(Tools.STATUS_FREE);
-                    fryPot.setOccupiedByRobotId(null);
-                    robot.setOccupiedFryPot(null);
-                    System.out.println("炸锅" + fryPot.getToolId() + "释放成功");
-                }
-                // --- 工作区释放 ---
-                if (memoryManager.releaseOrderPartition(order.getOrderId())) {
-                    System.out.println("工作区内存（订单ID:" + order.getOrderId() + "）释放成功");
-                } else {
-                    System.err.println("!!! 警告：工作区内存释放失败（订单ID:" + order.getOrderId() + "）!!! ");
-                }
-                robot.setOccupiedWorkbench(null);
+            // 步骤2：工具和工作区释放（原有逻辑不变）
+            // --- 工具资源释放 ---
+            if (robot.getOccupiedOven() != null) {
+                Tools oven = robot.getOccupiedOven();
+                toolManager.release(oven);
+                robot.setOccupiedOven(null);
+            }
+            if (robot.getOccupiedFryPan() != null) {
+                Tools fryPan = robot.getOccupiedFryPan();
+                toolManager.release(fryPan);
+                robot.setOccupiedFryPan(null);
+            }
+            if (robot.getOccupiedFryPot() != null) {
+                Tools fryPot = robot.getOccupiedFryPot();
+                toolManager.release(fryPot);
+                robot.setOccupiedFryPot(null);
+                System.out.println("炸锅" + fryPot.getToolId() + "释放成功");
+            }
+            // --- 工作区释放 ---
+            if (order == null) {
+                System.err.println("!!! 警告：机器人" + robotId + "没有关联订单，无法定位工作区分区 !!!");
+            } else if (workbenchRegistry.releaseOrderPartition(order.getOrderId())) {
+                System.out.println("工作区内存（订单ID:" + order.getOrderId() + "）释放成功");
+            } else {
+                System.err.println("!!! 警告：工作区内存释放失败（订单ID:" + order.getOrderId() + "）!!! ");
+            }
+            robot.setOccupiedWorkbench(null);
 
-                // 步骤3：事务逻辑修改（核心！只保留 finalOrder，删除 finalRobot/finalDish）
-                final Order finalOrder = order;
+            // 步骤3：事务逻辑修改（核心！只保留 finalOrder，删除 finalRobot/finalDish）
+            final Order finalOrder = order;
 
 
 
 // 步骤3：调用独立事务方法完成订单和机器人状态更新（核心修改）
-                try {
-                    if (order != null) {
-                        // 订单设为完成
-                        Order completedOrder = orderService.completeOrder(order);
-                        // 核心新增：将完成的订单加入算法模式内存列表
-                        ALG_COMPLETED_ORDERS.add(completedOrder); // 这行是关键！
-                        // 验证订单状态（可选）
-                        Optional<Order> orderOptional = orderService.findById(completedOrder.getOrderId());
-                        if (orderOptional.isPresent()) {
-                            Order dbOrder = orderOptional.get();
-                            System.out.println("数据库中订单" + dbOrder.getOrderId() + "真实状态：" + dbOrder.getOrderStatus());
-                            System.out.println("数据库中完成时间：" + dbOrder.getCompleteTime());
-                        }
-
-                        // 调用计数方法，持久化到数据库
-                        Robot updatedRobot = robotService.incrementFinishedOrders(robotId);
-                        syncRobotToMemory(updatedRobot);
-                        System.out.println("机器人" + robotId + "完成订单数更新为：" + updatedRobot.getFinishedOrders());
-
+            try {
+                if (order != null) {
+                    // 订单设为完成
+                    Order completedOrder = orderService.completeOrder(order);
+                    // 核心新增：将完成的订单加入算法模式内存列表
+                    ALG_COMPLETED_ORDERS.add(completedOrder); // 这行是关键！
+                    robotSelectionService.recordCompletion(completedOrder);
+                    orderSchedulingService.recordCompletion(completedOrder);
+                    // 合并烹饪的同菜品订单随队头订单一起完成
+                    for (Order follower : batchCookingService.takeFollowers(order.getOrderId())) {
+                        Order completedFollower = orderService.completeOrder(follower);
+                        ALG_COMPLETED_ORDERS.add(completedFollower);
+                        orderSchedulingService.recordCompletion(completedFollower);
+                        System.out.println("合并烹饪订单" + completedFollower.getOrderId() + "随订单" + order.getOrderId() + "完成");
+                    }
+                    // 验证订单状态（可选）
+                    Optional<Order> orderOptional = orderService.findById(completedOrder.getOrderId());
+                    if (orderOptional.isPresent()) {
+                        Order dbOrder = orderOptional.get();
+                        System.out.println("数据库中订单" + dbOrder.getOrderId() + "真实状态：" + dbOrder.getOrderStatus());
+                        System.out.println("数据库中完成时间：" + dbOrder.getCompleteTime());
                     }
 
-                    // 机器人设为空闲
-                    Robot freedRobot = robotService.updateRobotToFree(robotId);
-                    syncRobotToMemory(freedRobot); // 同步内存状态
-                    robot.setRobotStatus(Robot.STATUS_FREE);
-                    robot.setCurrentOrder(null);
-                    System.out.println("机器人" + robotId + "释放资源成功，事务已提交");
-                } catch (Exception e) {
-                    System.err.println("释放资源异常：" + e.getMessage());
-                    e.printStackTrace();
                 }
-
-                System.out.println("机器人" + robotId + "释放资源，订单" + finalOrder.getOrderId() + "完成");
+            } catch (Exception e) {
+                System.err.println("释放资源异常：" + e.getMessage());
+                e.printStackTrace();
             }
-        }
-    }
 
-    private void simulateOrderProcessing(Robot robot, Order order) {
-        new Thread(() -> {
             try {
-                // 获取当前订单的菜品
-                Dish dish = order.getDish();
-                // 获取菜品的制作时间（毫秒），若为null则用默认值（如500ms）
-                long cookTime = dish.getCookTime() != null ? dish.getCookTime() : 500L;
-
-                System.out.println("订单" + order.getOrderId() + "（菜品：" + dish.getDishName() + "）开始制作，预计耗时" + cookTime + "ms，占用机器人" + robot.getRobotId());
-
-                // 关键修改：使用菜品的制作时间作为休眠时长
-                Thread.sleep(cookTime);
-
-                System.out.println("订单" + order.getOrderId() + "（菜品：" + dish.getDishName() + "）制作完成，开始释放机器人" + robot.getRobotId());
-                releaseResource(robot); // 制作完成后释放资源
-                System.out.println("机器人" + robot.getRobotId() + "释放完成，状态已更新为空闲");
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                // 中断中断时强制释放机器人
-                releaseResource(robot);
-                System.err.println("订单" + order.getOrderId() + "处理中断，已强制释放机器人" + robot.getRobotId());
+                // 完成数 +1、机器人设为空闲并归还空闲队列（内存状态表，数据库异步回写）
+                robotRegistry.markFree(robot, order != null);
+                System.out.println("机器人" + robotId + "释放资源成功，完成订单数：" + robot.getFinishedOrders());
+            } catch (Exception e) {
+                System.err.println("释放资源异常：" + e.getMessage());
+                e.printStackTrace();
             }
-        }, "Order-Processing-" + order.getOrderId()).start();
-    }
 
-    // 1. 修改 findFreeRobot()：从数据库实时查询空闲机器人
-    private Robot findFreeRobot() {
-        // 不再从内存 allRobots 筛选，直接查数据库最新状态
-        List<Robot> freeRobots = robotRepository.findByRobotStatus(Robot.STATUS_FREE);
-        if (freeRobots.isEmpty()) {
-            System.out.println("无空闲机器人（数据库实时查询）");
-            return null;
+            System.out.println("机器人" + robotId + "释放资源，订单" + (finalOrder != null ? finalOrder.getOrderId() : "无") + "完成");
         }
-        // 关键修改：从空闲列表中随机选择一个
-        Random random = new Random();
-        int randomIndex = random.nextInt(freeRobots.size());
-        Robot randomFreeRobot = freeRobots.get(randomIndex);
+    }
 
-        // 同步数据库状态到内存
-        syncRobotToMemory(randomFreeRobot);
-        System.out.println("随机选择空闲机器人：ID=" + randomFreeRobot.getRobotId() + "（当前空闲数量：" + freeRobots.size() + "/4）");
-        return randomFreeRobot;
+    private void simulateOrderProcessing(Robot robot, Order order) {
+        // 获取当前订单的菜品
+        Dish dish = order.getDish();
+        // 获取菜品的制作时间（毫秒），若为null则用默认值（如500ms）
+        long cookTime = dish.getCookTime() != null ? dish.getCookTime() : 500L;
+        // 合并烹饪：准备/收尾共用，按批次份数延长
+        int batchSize = 1 + batchCookingService.getFollowers(order.getOrderId()).size();
+        cookTime = batchCookingService.batchCookTime(cookTime, batchSize);
+
+        System.out.println("订单" + order.getOrderId() + "（菜品：" + dish.getDishName() + "）开始制作，共" + batchSize + "份，预计耗时" + cookTime + "ms，占用机器人" + robot.getRobotId());
+
+        // 交给烹饪执行器计时，到点后在完成线程池中释放资源（不再为每个订单新建线程）
+        cookingExecutor.submit(order, cookTime, () -> {
+            System.out.println("订单" + order.getOrderId() + "（菜品：" + dish.getDishName() + "）制作完成，开始释放机器人" + robot.getRobotId());
+            releaseResource(robot); // 制作完成后释放资源
+            System.out.println("机器人" + robot.getRobotId() + "释放完成，状态已更新为空闲");
+        });
     }
 
-    // 2. 新增：同步数据库机器人状态到内存
-    private void syncRobotToMemory(Robot dbRobot) {
-        for (int i = 0; i < allRobots.size(); i++) {
-            if (allRobots.get(i).getRobotId().equals(dbRobot.getRobotId())) {
-                allRobots.set(i, dbRobot); // 用数据库最新状态覆盖内存
-                break;
-            }
+    // 按当前选择策略从内存状态表中选出并预占一个空闲机器人（不再查询数据库）
+    private Robot findFreeRobot(Order order) {
+        Robot freeRobot = robotSelectionService.claim(order);
+        if (freeRobot == null) {
+            System.out.println("无空闲机器人（内存状态表）");
+            return null;
         }
+        System.out.println("[" + robotSelectionService.getActiveStrategyName() + "] 选择空闲机器人：ID=" + freeRobot.getRobotId() + "（剩余空闲数量：" + robotRegistry.freeCount() + "/" + allRobots.size() + "）");
+        return freeRobot;
     }
 
     private void printResourceStatus() {
@@ -709,20 +839,26 @@ public class ResourceManagerThread extends Thread {
 
         // 补充工作台状态打印（原代码遗漏，方便测试查看）
         System.out.println("2. 工作区状态：");
-        System.out.println("   总空间：" + workbench.getTotalSpace() + "，已用：" + workbench.getUsedSpace() + "，空闲：" + workbench.getFreeSpace());
-        String workbenchOccupy = workbench.getOccupiedByRobotId() == null ? "空闲" : "被机器人" + workbench.getOccupiedByRobotId() + "占用";
-        System.out.println("   占用情况：" + workbenchOccupy);
+        for (MemoryManager bench : workbenchRegistry.getWorkbenches()) {
+            System.out.println("   工作台" + bench.getWorkbenchId() + " 总空间：" + bench.getTotalWorkbenchSize() + "，已用：" + bench.getUsedSpace() + "，空闲：" + bench.getFreeSpace());
+        }
 
 
-        // 3. 4个机器人状态（按ID排序，显示详细信息）
-        System.out.println("3. 机器人状态（共4个）：");
-        allRobots.stream()
+        // 3. 机器人状态（按ID排序，编队较大时只逐个打印前 PRINT_ROBOT_LIMIT 个）
+        List<Robot> robotsSnapshot = new ArrayList<>(allRobots);
+        long busyCount = robotsSnapshot.stream().filter(r -> Robot.STATUS_BUSY.equals(r.getRobotStatus())).count();
+        System.out.println("3. 机器人状态（共" + robotsSnapshot.size() + "个，忙碌" + busyCount + "个）：");
+        robotsSnapshot.stream()
                 .sorted(Comparator.comparingInt(Robot::getRobotId))
+                .limit(PRINT_ROBOT_LIMIT)
                 .forEach(robot -> {
                     String orderInfo = robot.getCurrentOrder() == null ? "无" : "订单" + robot.getCurrentOrder().getOrderId() + "（" + robot.getCurrentOrder().getDish().getDishName() + "）";
                     String status = robot.getRobotStatus() == Robot.STATUS_FREE ? "✅ 空闲" : "🔴 忙碌（处理" + orderInfo + "）";
                     System.out.println("   机器人" + robot.getRobotId() + "：" + status + "，完成订单数：" + robot.getFinishedOrders());
                 });
+        if (robotsSnapshot.size() > PRINT_ROBOT_LIMIT) {
+            System.out.println("   ……其余" + (robotsSnapshot.size() - PRINT_ROBOT_LIMIT) + "个机器人省略");
+        }
         System.out.println("4. 订单等待队列：" + orderWaitQueue.size() + "个订单");
         System.out.println("=======================\n");
     }
@@ -739,32 +875,43 @@ public class ResourceManagerThread extends Thread {
         // 把列表中的订单逐个加入等待队列
         for (Order order : orderList) {
             if (order != null && order.getDish() != null) {
-                try {
-                    orderWaitQueue.put(order);
-                    System.out.println("接收订单 " + order.getOrderId() + "（菜品：" + order.getDish().getDishName() + "）");
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    System.err.println("订单 " + order.getOrderId() + " 加入队列失败");
-                }
+                scheduler.enqueue(order, orderSchedulingService.getActivePolicy());
+                System.out.println("接收订单 " + order.getOrderId() + "（菜品：" + order.getDish().getDishName() + "）");
             }
         }
         System.out.println("已接收订单列表，共 " + orderList.size() + " 个订单");
 
 
         //新增， 将排序的队列彻底复制一份，用于对比测试
-        List<Order> copiedOrders = deepCopyOrdersForSimulation(new ArrayList<>(orderWaitQueue));
-        DeadlockSimulation simulation = new DeadlockSimulation(copiedOrders);
+        List<Order> copiedOrders = deepCopyOrdersForSimulation(scheduler.sortedSnapshot());
+        DeadlockSimulation simulation = new DeadlockSimulation(copiedOrders, toolManager.activeCounts());
 
         new Thread(simulation::runSimulation, "Deadlock-Simulation-Thread").start();
 
 
 
 
-        // 在队列添加完毕后，进行优先级调度
-
-        PrioritySchedulingAlgorithm scheduler = new PrioritySchedulingAlgorithm(orderWaitQueue);
-        scheduler.sortQueue(); // 调度
+        // 队列本身按调度策略的排序键排序，入队即就位，无需整体重排
         scheduler.printQueue(); // 打印队列
+        spaceReservationService.refresh(scheduler);
+        signalDispatcher(); // 新订单到达，唤醒调度线程重新评估队头
+    }
+
+    /**
+     * 运行时切换订单调度策略：等待中的订单取出后按新策略重新计算键入队，O(n log n)
+     * 取出到放回之间调度线程可能短暂看到空队列，只会多等一个空闲周期
+     * @throws IllegalArgumentException 策略不存在
+     */
+    public void switchSchedulingPolicy(String name) {
+        OrderSchedulingPolicy policy = orderSchedulingService.switchPolicy(name);
+        List<Order> waiting = new ArrayList<>();
+        orderWaitQueue.drainTo(waiting);
+        for (Order order : waiting) {
+            scheduler.enqueue(order, policy);
+        }
+        System.out.println("等待队列已按新策略 " + name + " 重排，共" + waiting.size() + "个订单");
+        spaceReservationService.refresh(scheduler);
+        signalDispatcher();
     }
 
     // 新增 printQueue 方法，用于打印订单等待队列的信息
@@ -774,7 +921,7 @@ public class ResourceManagerThread extends Thread {
             System.out.println("订单等待队列为空，没有待处理的订单");
         } else {
             System.out.println("订单等待队列中有 " + orderWaitQueue.size() + " 个待处理订单：");
-            for (Order order : orderWaitQueue) {
+            for (Order order : scheduler.sortedSnapshot()) {
                 System.out.println("订单ID: " + order.getOrderId() + "，菜品: " + order.getDish().getDishName() + "，优先级: " + order.getPriority());
             }
         }
@@ -791,47 +938,3 @@ public class ResourceManagerThread extends Thread {
 
 
 }
-
-
-
-
-
-/*      留一个线程池的方案，万一机器人数量啥的后面要提升的话，可以考虑用线程池来管理
-   初始化线程池，线程数可设为机器人数量
-   private final ExecutorService orderExecutor = Executors.newFixedThreadPool(2); // 2 台机器人
-    提交订单处理任务到线程池
-   private void submitOrderToExecutor(Robot robot, Order order)
-   {
-     orderExecutor.submit(() ->
-     {
-         try
-         {
-             simulateOrderProcessing(robot, order); // 执行订单处理
-         }
-         catch(Exception e)
-         {
-             // 异常时释放资源，避免机器人或工具卡住
-             release(robot);
-             System.err.println("订单处理异常，已释放资源: " + e.getMessage());
-             e.printStackTrace();
-         }
-     });
-    }
-    //在 ResourceManagerThread 停止时关闭线程池
- private void shutdownExecutor()
-     {
-     orderExecutor.shutdown(); // 禁止新任务提交
-     try
-     {
-         if (!orderExecutor.awaitTermination(5, TimeUnit.SECONDS))
-         {
-             orderExecutor.shutdownNow(); // 强制关闭
-         }
-     }
-     catch (InterruptedException e)
-     {
-         orderExecutor.shutdownNow(); // 中断时强制关闭
-         Thread.currentThread().interrupt(); // 保留中断状态
-     }
- }
- */
\ No newline at end of file
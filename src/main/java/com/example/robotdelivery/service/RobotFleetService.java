@@ -0,0 +1,49 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.mapper.RobotRepository;
+import com.example.robotdelivery.pojo.Robot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * 机器人编队管理：运行中注册/注销机器人，调度、银行家检查与状态打印随编队规模变化
+ */
+@Service
+public class RobotFleetService {
+
+    @Autowired
+    private RobotRepository robotRepository;
+
+    @Autowired
+    private RobotRegistry robotRegistry;
+
+    @Autowired
+    private ResourceManagerThread resourceManagerThread;
+
+    /**
+     * 注册新机器人：先落库获取ID，再加入内存状态表并唤醒调度线程
+     */
+    public Robot registerRobot(Integer location) {
+        Robot robot = new Robot();
+        robot.setRobotStatus(Robot.STATUS_FREE);
+        robot.setFinishedOrders(0);
+        robot.setCurrentOrder(null);
+        robot.setRobotLcation(location);
+        Robot saved = robotRepository.save(robot);
+        robotRegistry.register(saved);
+        resourceManagerThread.signalDispatcher();
+        return saved;
+    }
+
+    /**
+     * 注销机器人：空闲的立即移除，忙碌的完成当前订单后移除
+     * @return true 表示已立即移除
+     */
+    public boolean deregisterRobot(Integer robotId) {
+        return robotRegistry.deregister(robotId);
+    }
+
+    public int getFleetSize() {
+        return robotRegistry.size();
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.mapper.RobotRepository;
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Robot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 机器人内存状态表：调度热路径上的唯一权威状态
+ * 空闲机器人放在按下标存取的空闲表中（环形数组 + 机器人ID → 下标），从表中移除即完成预占（不再每次查询数据库）：
+ * 选择策略直接在空闲表上挑选，不复制候选列表；表内按归还先后排列，队头是空闲最久的机器人，移除 O(1)
+ * 状态变更只记录“脏”标记，由定时任务批量回写 tb_robot（write-behind），注销的删除同样延后到回写时执行
+ */
+@Component
+public class RobotRegistry {
+
+    @Autowired
+    private RobotRepository robotRepository;
+
+    private final ConcurrentHashMap<Integer, Robot> robots = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Robot> robotList = new CopyOnWriteArrayList<>();
+    // 空闲表，与注销标记一起由 freeLock 保护
+    private final Object freeLock = new Object();
+    private final FreeTable freeRobots = new FreeTable();
+    // 内存状态已变化、尚未回写数据库的机器人ID
+    private final Set<Integer> dirtyRobotIds = ConcurrentHashMap.newKeySet();
+    // 待注销的机器人：忙碌或已被预占，空闲下来时移除而不是回到空闲队列
+    private final Set<Integer> retiringRobotIds = ConcurrentHashMap.newKeySet();
+    // 已注销、尚未从数据库删除的机器人ID
+    private final Set<Integer> deletedRobotIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 用初始化完成的机器人列表建立内存状态表（覆盖旧状态）
+     */
+    public synchronized void load(List<Robot> initRobots) {
+        robots.clear();
+        dirtyRobotIds.clear();
+        deletedRobotIds.clear();
+        List<Robot> sorted = new ArrayList<>(initRobots);
+        sorted.sort(Comparator.comparingInt(Robot::getRobotId));
+        synchronized (freeLock) {
+            freeRobots.clear();
+            retiringRobotIds.clear();
+            for (Robot robot : sorted) {
+                robots.put(robot.getRobotId(), robot);
+                if (Robot.STATUS_FREE.equals(robot.getRobotStatus())) {
+                    freeRobots.offer(robot);
+                }
+            }
+        }
+        robotList.clear();
+        robotList.addAll(sorted);
+        System.out.println("[RobotRegistry] 内存状态表加载完成，机器人：" + robots.size() + "，空闲：" + freeCount());
+    }
+
+    /**
+     * 全部机器人（内存对象，状态实时可见）
+     */
+    public List<Robot> getAllRobots() {
+        return Collections.unmodifiableList(robotList);
+    }
+
+    public Robot getRobot(Integer robotId) {
+        return robots.get(robotId);
+    }
+
+    public int size() {
+        return robots.size();
+    }
+
+    public int freeCount() {
+        synchronized (freeLock) {
+            return freeRobots.size();
+        }
+    }
+
+    /**
+     * 按选择策略从空闲机器人中挑选并预占一个，无空闲时返回 null
+     * 策略在空闲表锁内直接对空闲表挑选（不复制），选中后 O(1) 移除；
+     * 随机/轮询挑选本身 O(1)，最少负载/位置亲和需扫描空闲表一遍
+     */
+    public Robot claimFreeRobot(RobotSelectionStrategy strategy, Order order) {
+        synchronized (freeLock) {
+            if (freeRobots.isEmpty()) {
+                return null;
+            }
+            Robot chosen = strategy.select(freeRobots, order);
+            if (chosen == null || !freeRobots.removeRobot(chosen.getRobotId())) {
+                return null;
+            }
+            return chosen;
+        }
+    }
+
+    /**
+     * 放弃预占（派发失败），机器人回到空闲表
+     */
+    public void unclaim(Robot robot) {
+        returnToFree(robot);
+    }
+
+    /**
+     * 标记机器人开始处理订单（仅改内存，稍后回写数据库）
+     */
+    public void markBusy(Robot robot, Order order) {
+        robot.setRobotStatus(Robot.STATUS_BUSY);
+        robot.setCurrentOrder(order);
+        dirtyRobotIds.add(robot.getRobotId());
+    }
+
+    /**
+     * 分配失败回滚：恢复为空闲状态，但不归还空闲队列（由持有预占的调度线程 unclaim）
+     */
+    public void markIdle(Robot robot) {
+        robot.setRobotStatus(Robot.STATUS_FREE);
+        robot.setCurrentOrder(null);
+        dirtyRobotIds.add(robot.getRobotId());
+    }
+
+    /**
+     * 标记机器人完成订单：完成数 +1（若有订单）、置为空闲并归还空闲队列
+     */
+    public void markFree(Robot robot, boolean orderCompleted) {
+        if (orderCompleted) {
+            robot.incFinishedOrders();
+        }
+        robot.setRobotStatus(Robot.STATUS_FREE);
+        robot.setCurrentOrder(null);
+        dirtyRobotIds.add(robot.getRobotId());
+        returnToFree(robot);
+    }
+
+    // 归还空闲表；已标记注销的机器人改为完成注销（判断与归还在同一把锁内，不会残留在空闲表中）
+    private void returnToFree(Robot robot) {
+        boolean deregistered;
+        synchronized (freeLock) {
+            deregistered = completeDeregister(robot.getRobotId());
+            if (!deregistered) {
+                freeRobots.offer(robot);
+            }
+        }
+        if (deregistered) {
+            logDeregistered(robot.getRobotId());
+        }
+    }
+
+    /**
+     * 运行中注册新机器人（已持久化），立即进入空闲队列
+     */
+    public void register(Robot robot) {
+        robots.put(robot.getRobotId(), robot);
+        robotList.add(robot);
+        if (Robot.STATUS_FREE.equals(robot.getRobotStatus())) {
+            synchronized (freeLock) {
+                freeRobots.offer(robot);
+            }
+        }
+        System.out.println("[RobotRegistry] 注册机器人" + robot.getRobotId() + "，当前机器人：" + robots.size());
+    }
+
+    /**
+     * 注销机器人：空闲的立即移除；忙碌或已被预占的先标记，完成当前订单（或放弃预占）后移除
+     * @return true 表示已立即移除
+     * @throws IllegalArgumentException 机器人不存在
+     */
+    public boolean deregister(Integer robotId) {
+        if (!robots.containsKey(robotId)) {
+            throw new IllegalArgumentException("机器人不存在：" + robotId);
+        }
+        boolean removed;
+        synchronized (freeLock) {
+            // 标记与移出空闲表在同一把锁内：之后任何归还路径都会看到标记
+            retiringRobotIds.add(robotId);
+            removed = freeRobots.removeRobot(robotId) && completeDeregister(robotId);
+        }
+        if (removed) {
+            logDeregistered(robotId);
+            return true;
+        }
+        System.out.println("[RobotRegistry] 机器人" + robotId + "正在工作，完成后注销");
+        return false;
+    }
+
+    // 完成注销（须持有 freeLock）：移出内存状态表，数据库记录由 flush 删除；未标记注销时返回 false
+    private boolean completeDeregister(Integer robotId) {
+        if (!retiringRobotIds.remove(robotId)) {
+            return false;
+        }
+        Robot robot = robots.remove(robotId);
+        if (robot != null) {
+            robotList.remove(robot);
+        }
+        dirtyRobotIds.remove(robotId);
+        deletedRobotIds.add(robotId);
+        return true;
+    }
+
+    private void logDeregistered(Integer robotId) {
+        System.out.println("[RobotRegistry] 机器人" + robotId + "已注销，当前机器人：" + robots.size());
+    }
+
+    /**
+     * 定时把脏机器人的内存状态回写数据库，并删除已注销机器人的记录
+     */
+    @Scheduled(fixedDelayString = "${robot.registry.flush-interval-ms:200}")
+    public void flush() {
+        for (Integer robotId : new ArrayList<>(deletedRobotIds)) {
+            try {
+                robotRepository.deleteById(robotId);
+                deletedRobotIds.remove(robotId);
+            } catch (Exception e) {
+                // 保留待删除标记，下一轮重试
+                System.err.println("[RobotRegistry] 删除机器人" + robotId + "数据库记录失败：" + e.getMessage());
+            }
+        }
+        if (dirtyRobotIds.isEmpty()) {
+            return;
+        }
+        for (Integer robotId : new ArrayList<>(dirtyRobotIds)) {
+            // 先移除标记再读取状态：读取期间的新变更会重新打标记，下一轮再写
+            dirtyRobotIds.remove(robotId);
+            Robot robot = robots.get(robotId);
+            if (robot == null) {
+                continue;
+            }
+            try {
+                Robot dbRobot = robotRepository.findById(robotId).orElse(null);
+                if (dbRobot == null) {
+                    System.err.println("[RobotRegistry] 回写失败，数据库中不存在机器人：" + robotId);
+                    continue;
+                }
+                dbRobot.setRobotStatus(robot.getRobotStatus());
+                dbRobot.setCurrentOrder(robot.getCurrentOrder());
+                dbRobot.setFinishedOrders(robot.getFinishedOrders());
+                robotRepository.save(dbRobot);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // 与其他写入冲突：保留脏标记，下一轮重试
+                dirtyRobotIds.add(robotId);
+                System.err.println("[RobotRegistry] 机器人" + robotId + "回写版本冲突，稍后重试");
+            } catch (Exception e) {
+                dirtyRobotIds.add(robotId);
+                System.err.println("[RobotRegistry] 机器人" + robotId + "回写异常：" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 关闭前把未回写的状态全部落库
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        System.out.println("[RobotRegistry] 关闭前回写机器人状态，待回写：" + dirtyRobotIds.size() + "，待删除：" + deletedRobotIds.size());
+        flush();
+    }
+
+    /**
+     * 空闲表：环形数组按归还先后存放空闲机器人（下标 0 为空闲最久者），另以机器人ID → 物理槽位定位，均为 O(1)
+     * 作为只读 List 交给选择策略按下标访问；中间元素被移除时由队头元素补位，队头之后的先后顺序不变
+     * 非线程安全，由 RobotRegistry.freeLock 保护
+     */
+    private static final class FreeTable extends AbstractList<Robot> implements RandomAccess {
+        private Robot[] ring = new Robot[16];
+        private int head = 0;
+        private int size = 0;
+        private final Map<Integer, Integer> slotById = new HashMap<>();
+
+        @Override
+        public Robot get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("空闲表下标越界：" + index + "/" + size);
+            }
+            return ring[(head + index) % ring.length];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        // 加入队尾，已在表中时忽略
+        void offer(Robot robot) {
+            if (slotById.containsKey(robot.getRobotId())) {
+                return;
+            }
+            if (size == ring.length) {
+                grow();
+            }
+            int slot = (head + size) % ring.length;
+            ring[slot] = robot;
+            slotById.put(robot.getRobotId(), slot);
+            size++;
+        }
+
+        // 移除指定机器人：队头元素移入空出的槽位，队头后移一格
+        boolean removeRobot(Integer robotId) {
+            Integer slot = slotById.remove(robotId);
+            if (slot == null) {
+                return false;
+            }
+            if (slot != head) {
+                Robot first = ring[head];
+                ring[slot] = first;
+                slotById.put(first.getRobotId(), slot);
+            }
+            ring[head] = null;
+            head = (head + 1) % ring.length;
+            size--;
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(ring, null);
+            head = 0;
+            size = 0;
+            slotById.clear();
+        }
+
+        private void grow() {
+            Robot[] larger = new Robot[ring.length * 2];
+            for (int i = 0; i < size; i++) {
+                larger[i] = ring[(head + i) % ring.length];
+                slotById.put(larger[i].getRobotId(), i);
+            }
+            ring = larger;
+            head = 0;
+        }
+    }
+}
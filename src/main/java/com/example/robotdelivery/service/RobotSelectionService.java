@@ -0,0 +1,192 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Robot;
+import com.example.robotdelivery.pojo.vo.RobotSelectionStatsVO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 机器人选择服务：管理所有 RobotSelectionStrategy，支持运行时切换，
+ * 并按策略统计选择次数、完成订单的延迟分布与 makespan
+ */
+@Service
+public class RobotSelectionService {
+
+    @Autowired
+    private RobotRegistry robotRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private List<RobotSelectionStrategy> strategyBeans;
+
+    @Value("${robot.selection.strategy:random}")
+    private String defaultStrategy;
+
+    private final Map<String, RobotSelectionStrategy> strategies = new LinkedHashMap<>();
+    private final Map<String, StrategyStats> stats = new LinkedHashMap<>();
+    private volatile RobotSelectionStrategy activeStrategy;
+
+    // 订单ID → 派发该订单时使用的策略，完成时据此归档延迟
+    private final ConcurrentHashMap<Integer, String> dispatchedBy = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (RobotSelectionStrategy strategy : strategyBeans) {
+            strategies.put(strategy.getName(), strategy);
+            stats.put(strategy.getName(), new StrategyStats(strategy.getName(), meterRegistry));
+        }
+        activeStrategy = strategies.get(defaultStrategy);
+        if (activeStrategy == null) {
+            System.err.println("[RobotSelection] 未知策略：" + defaultStrategy + "，使用随机选择");
+            activeStrategy = strategies.get(RandomRobotSelection.NAME);
+        }
+        System.out.println("[RobotSelection] 可用策略：" + strategies.keySet() + "，当前策略：" + activeStrategy.getName());
+    }
+
+    /**
+     * 用当前策略从内存状态表中选出并预占一个空闲机器人，无空闲时返回 null
+     */
+    public Robot claim(Order order) {
+        RobotSelectionStrategy strategy = activeStrategy;
+        StrategyStats strategyStats = stats.get(strategy.getName());
+        Robot robot = robotRegistry.claimFreeRobot(strategy, order);
+        if (robot == null) {
+            strategyStats.misses.increment();
+            return null;
+        }
+        strategyStats.selections.increment();
+        dispatchedBy.put(order.getOrderId(), strategy.getName());
+        return robot;
+    }
+
+    /**
+     * 订单已成功派发，记录该策略的首次派发时间
+     */
+    public void recordDispatch(Order order) {
+        String name = dispatchedBy.get(order.getOrderId());
+        if (name != null) {
+            stats.get(name).firstDispatchMs.compareAndSet(0, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 派发失败（放弃预占或分配回滚）：撤销 claim 时登记的策略，避免未完成的订单永久留在表中
+     */
+    public void cancelDispatch(Order order) {
+        if (order != null) {
+            dispatchedBy.remove(order.getOrderId());
+        }
+    }
+
+    /**
+     * 订单完成：把“创建 → 完成”耗时计入派发它的策略
+     */
+    public void recordCompletion(Order order) {
+        String name = dispatchedBy.remove(order.getOrderId());
+        if (name == null) {
+            return;
+        }
+        StrategyStats strategyStats = stats.get(name);
+        LocalDateTime createTime = order.getCreateTime();
+        if (createTime != null) {
+            strategyStats.latency.record(Duration.between(createTime, LocalDateTime.now()));
+        }
+        strategyStats.lastCompletionMs.accumulateAndGet(System.currentTimeMillis(), Math::max);
+    }
+
+    public String getActiveStrategyName() {
+        return activeStrategy.getName();
+    }
+
+    public List<String> getStrategyNames() {
+        return new ArrayList<>(strategies.keySet());
+    }
+
+    /**
+     * 运行时切换策略
+     * @throws IllegalArgumentException 策略不存在
+     */
+    public void switchStrategy(String name) {
+        RobotSelectionStrategy strategy = strategies.get(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("未知的机器人选择策略：" + name + "，可用：" + strategies.keySet());
+        }
+        activeStrategy = strategy;
+        System.out.println("[RobotSelection] 机器人选择策略切换为：" + name);
+    }
+
+    public List<RobotSelectionStatsVO> getStats() {
+        List<RobotSelectionStatsVO> result = new ArrayList<>();
+        String activeName = activeStrategy.getName();
+        for (StrategyStats s : stats.values()) {
+            RobotSelectionStatsVO vo = new RobotSelectionStatsVO();
+            vo.setStrategy(s.name);
+            vo.setActive(s.name.equals(activeName));
+            vo.setSelections((long) s.selections.count());
+            vo.setMisses((long) s.misses.count());
+            vo.setCompletedOrders(s.latency.count());
+            long first = s.firstDispatchMs.get();
+            long last = s.lastCompletionMs.get();
+            vo.setMakespanMs(first > 0 && last >= first ? last - first : 0);
+            vo.setAvgLatencyMs(s.latency.mean(TimeUnit.MILLISECONDS));
+            vo.setMaxLatencyMs(s.latency.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile p : s.latency.takeSnapshot().percentileValues()) {
+                if (p.percentile() == 0.95) {
+                    vo.setP95LatencyMs(p.value(TimeUnit.MILLISECONDS));
+                } else if (p.percentile() == 0.99) {
+                    vo.setP99LatencyMs(p.value(TimeUnit.MILLISECONDS));
+                }
+            }
+            result.add(vo);
+        }
+        return result;
+    }
+
+    /**
+     * 单个策略的计数器与延迟分布
+     */
+    private static class StrategyStats {
+        final String name;
+        final Counter selections;
+        final Counter misses;
+        final Timer latency;
+        final AtomicLong firstDispatchMs = new AtomicLong(0);
+        final AtomicLong lastCompletionMs = new AtomicLong(0);
+
+        StrategyStats(String name, MeterRegistry registry) {
+            this.name = name;
+            this.selections = Counter.builder("robot.selection.selections")
+                    .tag("strategy", name)
+                    .description("策略选中机器人次数")
+                    .register(registry);
+            this.misses = Counter.builder("robot.selection.misses")
+                    .tag("strategy", name)
+                    .description("选择时无空闲机器人次数")
+                    .register(registry);
+            this.latency = Timer.builder("robot.selection.order.latency")
+                    .tag("strategy", name)
+                    .description("订单创建到完成的耗时")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+        }
+    }
+}
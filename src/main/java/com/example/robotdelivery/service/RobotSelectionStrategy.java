@@ -0,0 +1,26 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Robot;
+
+import java.util.List;
+
+/**
+ * 机器人选择策略：从当前空闲机器人中为订单挑选一个
+ * 实现类注册为 Spring Bean 即可被 RobotSelectionService 发现，并可在运行时切换
+ */
+public interface RobotSelectionStrategy {
+
+    /**
+     * 策略名称（运行时切换、统计时使用）
+     */
+    String getName();
+
+    /**
+     * 在空闲表锁内调用，应尽量 O(1)（按下标取），需要比较时只扫描一遍、不分配对象
+     * @param candidates 空闲机器人（非空，按归还先后排列、下标 0 为空闲最久者；可按下标随机访问的只读表，仅在本次调用内有效，不要保存）
+     * @param order      待派发订单
+     * @return 选中的机器人，必须是 candidates 中的元素
+     */
+    Robot select(List<Robot> candidates, Order order);
+}
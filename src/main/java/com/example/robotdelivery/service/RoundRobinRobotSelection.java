@@ -0,0 +1,24 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Robot;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 轮询选择：取空闲最久的机器人（空闲表队头），O(1)；机器人按归还先后轮流接单
+ */
+@Component
+public class RoundRobinRobotSelection implements RobotSelectionStrategy {
+
+    @Override
+    public String getName() {
+        return "round-robin";
+    }
+
+    @Override
+    public Robot select(List<Robot> candidates, Order order) {
+        return candidates.get(0);
+    }
+}
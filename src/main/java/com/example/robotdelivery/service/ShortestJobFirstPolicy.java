@@ -0,0 +1,30 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 短作业优先（SJF，非抢占）：按菜品烹饪时长升序，时长相同按订单ID（先到先服务）
+ * 平均响应时间最小，但长菜在短菜持续到达时可能饥饿
+ */
+@Component
+public class ShortestJobFirstPolicy implements OrderSchedulingPolicy {
+
+    public static final String NAME = "sjf";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long queueKey(Order order) {
+        return cookTimeOf(order);
+    }
+
+    // 烹饪时长未知的订单排在最后
+    static long cookTimeOf(Order order) {
+        Long cookTime = order.getDish() != null ? order.getDish().getCookTime() : null;
+        return cookTime != null ? cookTime : Long.MAX_VALUE / 4;
+    }
+}
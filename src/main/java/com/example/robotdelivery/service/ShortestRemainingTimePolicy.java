@@ -0,0 +1,37 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 最短剩余时间（SRTF 风格）：烹饪一旦开始不能抢占，排队订单的剩余时间即烹饪时长，
+ * 因此在每个派发时刻选“预计完成时刻”最早的订单：键 = 创建时间(ms) + 烹饪时长 × weight
+ * 与纯 SJF 相比把到达时间放在同一时间轴上，长菜最多比新到的短菜多等 (时长差 × weight)，不会饥饿
+ */
+@Component
+public class ShortestRemainingTimePolicy implements OrderSchedulingPolicy {
+
+    public static final String NAME = "srtf";
+
+    @Value("${robot.scheduler.srtf.weight:4}")
+    private long weight; // 烹饪时长相对等待时间的权重
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * 饱和运算：烹饪时长未知（哨兵值）或乘积超出 long 范围时取 Long.MAX_VALUE，保证排在最后而不是溢出成负数插到队头
+     */
+    @Override
+    public long queueKey(Order order) {
+        try {
+            return Math.addExact(OrderSchedulingPolicy.createMillis(order),
+                    Math.multiplyExact(ShortestJobFirstPolicy.cookTimeOf(order), weight));
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
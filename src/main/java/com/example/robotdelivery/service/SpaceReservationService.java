@@ -0,0 +1,74 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 工作台空间预留（可选）：为等待队列中优先级最高的前 K 个订单提前占住连续空间
+ * 资源释放后先为队头的大订单圈住刚空出来的连续块，避免被后来的小订单切碎而长期饿死
+ * 预留有时限（老化预算）：到期未被使用则归还，且同一订单只预留一次，防止长期囤积空间
+ */
+@Service
+public class SpaceReservationService {
+
+    @Autowired
+    private WorkbenchRegistry workbenchRegistry;
+
+    @Value("${robot.workbench.reservation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${robot.workbench.reservation.top-k:2}")
+    private int topK; // 只为队列前 K 个订单预留
+
+    @Value("${robot.workbench.reservation.ttl-ms:5000}")
+    private long ttlMs; // 单个订单的预留时限
+
+    // 预留已到期（预算用完）的订单，不再为其预留；订单派发后移除
+    private final Set<Integer> exhaustedOrders = ConcurrentHashMap.newKeySet();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 按当前等待队列刷新预留：先回收到期预留，再为调度顺序上的前 K 个订单补预留
+     * 由调度在资源释放、新订单入队后调用
+     */
+    public void refresh(PrioritySchedulingAlgorithm scheduler) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Integer orderId : workbenchRegistry.expireReservations(now)) {
+            exhaustedOrders.add(orderId);
+            System.out.println("[SpaceReservation] 订单" + orderId + "的预留已到期，归还空间");
+        }
+        for (Order order : scheduler.top(topK)) {
+            if (order == null || order.getDish() == null || order.getDish().getRequiredSpace() == null) {
+                continue;
+            }
+            int orderId = order.getOrderId();
+            if (workbenchRegistry.hasReservation(orderId) || exhaustedOrders.contains(orderId)) {
+                continue;
+            }
+            if (workbenchRegistry.reserve(order, now + ttlMs)) {
+                System.out.println("[SpaceReservation] 为订单" + orderId + "（" + order.getDish().getDishName()
+                        + "，空间" + order.getDish().getRequiredSpace() + "）预留工作台空间，时限" + ttlMs + "ms");
+            }
+        }
+    }
+
+    /**
+     * 订单已派发：清除其预留记录
+     */
+    public void onDispatched(Order order) {
+        if (enabled) {
+            exhaustedOrders.remove(order.getOrderId());
+        }
+    }
+}
@@ -2,41 +2,347 @@ package com.example.robotdelivery.service;
 
 import com.example.robotdelivery.pojo.Tools;
 import com.example.robotdelivery.pojo.Tools.ToolType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 @Component
 public class ToolManager {
-    // 负责存储和持有工具的 List
-    private final List<Tools> allTools = new ArrayList<>();
+    // 负责存储和持有工具的 List（只读遍历多、增删少，使用写时复制列表）
+    private final List<Tools> allTools = new CopyOnWriteArrayList<>();
     private final AtomicInteger toolIdCounter = new AtomicInteger(1);
 
+    // 每种工具类型一个空闲池：位图记录空闲槽位，取用/归还均为 CAS，不加锁、不分配对象
+    private final EnumMap<ToolType, ToolPool> freePools = new EnumMap<>(ToolType.class);
+
+    @Value("${robot.tools.max-per-type:512}")
+    private int maxToolsPerType; // 每种工具的槽位上限（位图容量）
+
+    // 启动时的工具数量（运行中可通过管理接口增减）
+    @Value("${robot.tools.initial.oven:2}")
+    private int initialOvens;
+    @Value("${robot.tools.initial.fry-pan:2}")
+    private int initialFryPans;
+    @Value("${robot.tools.initial.fry-pot:1}")
+    private int initialFryPots;
+
     @PostConstruct // 确保 Spring 注入完成后执行初始化
     public void initTools() {
+        for (ToolType type : ToolType.values()) {
+            freePools.put(type, new ToolPool(maxToolsPerType));
+        }
         //原 ResourceManagerThread 中的初始化逻辑移到这里
-        addTool(ToolType.OVEN, 2);    // 2个烤箱
-        addTool(ToolType.FRY_PAN, 2); // 2个煎锅
-        addTool(ToolType.FRY_POT, 1); // 1个炸锅
+        addTools(ToolType.OVEN, initialOvens);
+        addTools(ToolType.FRY_PAN, initialFryPans);
+        addTools(ToolType.FRY_POT, initialFryPots);
         System.out.println("[ToolManager] 烹饪工具初始化完成，总数: " + allTools.size());
     }
 
-    private void addTool(ToolType type, int count) {
+    /**
+     * 新增指定类型的工具（调度运行中也可调用），新工具立即进入空闲池
+     * @throws IllegalStateException 超过该类型槽位上限
+     */
+    public List<Tools> addTools(ToolType type, int count) {
+        List<Tools> added = new ArrayList<>();
         for (int i = 0; i < count; i++) {
             Tools tool = new Tools();
             tool.setToolId(toolIdCounter.getAndIncrement());
             tool.setToolType(type);
             tool.setToolStatus(Tools.STATUS_FREE);
             this.allTools.add(tool);
+            freePools.get(type).register(tool);
+            added.add(tool);
+        }
+        return added;
+    }
+
+    /**
+     * 退役工具：空闲的立即移出空闲池；正在使用的先打上退役标记，归还时不再回到空闲池（安全排空）
+     * @return true 表示已移除，false 表示正在使用、将于归还时移除
+     * @throws IllegalArgumentException 工具不存在
+     */
+    public boolean retireTool(Integer toolId) {
+        Tools tool = findTool(toolId);
+        if (tool == null) {
+            throw new IllegalArgumentException("工具不存在：" + toolId);
         }
+        tool.setRetired(true);
+        ToolPool pool = freePools.get(tool.getToolType());
+        if (pool.tryRemoveFree(tool)) {
+            drain(tool);
+            return true;
+        }
+        // 正在使用（或刚被取走）：由 release 完成排空
+        System.out.println("[ToolManager] 工具" + toolId + "正在使用，归还后退役");
+        return false;
+    }
+
+    public Tools findTool(Integer toolId) {
+        for (Tools tool : allTools) {
+            if (tool.getToolId().equals(toolId)) {
+                return tool;
+            }
+        }
+        return null;
+    }
+
+    // 从工具列表与空闲池中彻底移除（槽位可被后续新增的工具复用）
+    private void drain(Tools tool) {
+        allTools.remove(tool);
+        freePools.get(tool.getToolType()).vacate(tool);
+        System.out.println("[ToolManager] 工具" + tool.getToolId() + "（" + tool.getToolType() + "）已退役");
     }
 
     // 提供给 ResourceManagerThread 和 ToolServiceImpl 调用的方法
     public List<Tools> getAllToolInstances() {
         return allTools;
     }
-}
\ No newline at end of file
+
+    /**
+     * 原子地占用一个指定类型的空闲工具，无空闲时返回 null
+     */
+    public Tools tryAcquire(ToolType type, Integer robotId) {
+        ToolPool pool = freePools.get(type);
+        Tools tool = pool.tryReserve() ? takeActive(pool) : null;
+        if (tool != null) {
+            tool.acquire(robotId); // 位图槽位已独占，占用者 CAS 必定成功
+        }
+        return tool;
+    }
+
+    /**
+     * 取出一个已预留名额的在役工具：取到的工具若已退役（退役与归还并发时可能留在空闲池中），
+     * 由取用者排空并重新预留；没有其他空闲工具时返回 null（名额已随退役工具消耗，无需撤销）
+     */
+    private Tools takeActive(ToolPool pool) {
+        while (true) {
+            Tools tool = pool.takeReserved();
+            if (!tool.isRetired()) {
+                return tool;
+            }
+            drain(tool);
+            if (!pool.tryReserve()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 原子地预留一组不同类型的工具：要么全部拿到，要么一个都不占用
+     * 第一阶段按类型顺序扣减空闲计数，任一类型不足时只需把已扣减的计数加回（不触碰工具状态）；
+     * 第二阶段从位图中取出已预留的工具；取到已退役工具且该类型已无其他空闲时，已取出的放回、其余预留撤销
+     * @return 类型 → 工具；任一类型无空闲时返回 null
+     */
+    public EnumMap<ToolType, Tools> reserveAll(EnumSet<ToolType> types, Integer robotId) {
+        for (ToolType type : types) {
+            if (!freePools.get(type).tryReserve()) {
+                for (ToolType reserved : types) {
+                    if (reserved == type) {
+                        break;
+                    }
+                    freePools.get(reserved).cancelReservation();
+                }
+                return null;
+            }
+        }
+        EnumMap<ToolType, Tools> result = new EnumMap<>(ToolType.class);
+        for (ToolType type : types) {
+            Tools tool = takeActive(freePools.get(type));
+            if (tool == null) {
+                for (Tools taken : result.values()) {
+                    freePools.get(taken.getToolType()).release(taken);
+                }
+                boolean pending = false;
+                for (ToolType rest : types) {
+                    if (pending) {
+                        freePools.get(rest).cancelReservation();
+                    }
+                    pending |= rest == type;
+                }
+                return null;
+            }
+            result.put(type, tool);
+        }
+        for (Tools tool : result.values()) {
+            tool.acquire(robotId);
+        }
+        return result;
+    }
+
+    /**
+     * 归还工具到对应类型的空闲池：先由占用者 CAS 释放，只有释放成功的线程才归还槽位，重复归还无效
+     * 已退役的工具不再回到空闲池；归还后再检查一次退役标记，与 retireTool 并发时由先清除空闲位的一方排空
+     */
+    public void release(Tools tool) {
+        if (tool.release(tool.getOccupiedByRobotId())) {
+            ToolPool pool = freePools.get(tool.getToolType());
+            if (tool.isRetired()) {
+                drain(tool);
+            } else {
+                pool.release(tool);
+                if (tool.isRetired() && pool.tryRemoveFree(tool)) {
+                    drain(tool);
+                }
+            }
+        }
+    }
+
+    /**
+     * 指定类型当前空闲工具数量（O(1)）
+     */
+    public int freeCount(ToolType type) {
+        return freePools.get(type).freeCount.get();
+    }
+
+    /**
+     * 指定类型在池中的工具数量（含使用中、已标记退役但尚未归还的），O(1)
+     */
+    public int poolSize(ToolType type) {
+        return freePools.get(type).activeCount;
+    }
+
+    /**
+     * 各类型当前在役（未退役）的工具数量
+     */
+    public EnumMap<ToolType, Integer> activeCounts() {
+        EnumMap<ToolType, Integer> counts = new EnumMap<>(ToolType.class);
+        for (ToolType type : ToolType.values()) {
+            counts.put(type, 0);
+        }
+        for (Tools tool : allTools) {
+            if (!tool.isRetired()) {
+                counts.merge(tool.getToolType(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * 单一工具类型的空闲池
+     * freeCount 先于位图扣减、晚于位图归还，因此 freeCount 不会超过位图中实际空闲的数量：
+     * 扣减 freeCount 成功的线程一定能在位图中找到一个空闲槽位
+     */
+    private static final class ToolPool {
+        private static final int MAX_TAKE_PASSES = 10_000; // takeReserved 扫描位图的最大轮数
+        private final Tools[] slots;
+        private final AtomicLongArray freeBits;
+        private final AtomicInteger freeCount = new AtomicInteger(0);
+        private volatile int usedWords = 0; // 已使用的位图字数，扫描只到这里
+        private int size = 0;
+        private volatile int activeCount = 0; // 占用槽位的工具数（注册 +1，退役腾出槽位 -1）
+        private final ArrayDeque<Integer> vacantSlots = new ArrayDeque<>(); // 退役工具腾出的槽位
+
+        ToolPool(int capacity) {
+            this.slots = new Tools[capacity];
+            this.freeBits = new AtomicLongArray((capacity + 63) / 64);
+        }
+
+        synchronized void register(Tools tool) {
+            int slot;
+            if (!vacantSlots.isEmpty()) {
+                slot = vacantSlots.poll();
+            } else {
+                if (size >= slots.length) {
+                    throw new IllegalStateException(tool.getToolType() + " 数量超过上限 " + slots.length);
+                }
+                slot = size++;
+                usedWords = (size + 63) / 64;
+            }
+            // 先放入槽位再置位：其他线程看到空闲位时槽位中一定是新工具
+            slots[slot] = tool;
+            tool.setPoolSlot(slot);
+            activeCount++;
+            release(tool);
+        }
+
+        // 槽位对应的位已清除且工具不再使用，可安全复用
+        synchronized void vacate(Tools tool) {
+            vacantSlots.push(tool.getPoolSlot());
+            activeCount--;
+        }
+
+        /**
+         * 把一个空闲工具移出空闲池：先扣减计数（维持计数不超过空闲位数），再清除它自己的位；
+         * 该位已被取用者清除时撤销扣减，返回 false
+         */
+        boolean tryRemoveFree(Tools tool) {
+            if (!tryReserve()) {
+                return false;
+            }
+            int slot = tool.getPoolSlot();
+            int w = slot >>> 6;
+            long bit = 1L << (slot & 63);
+            long bits;
+            do {
+                bits = freeBits.get(w);
+                if ((bits & bit) == 0L) {
+                    cancelReservation();
+                    return false;
+                }
+            } while (!freeBits.compareAndSet(w, bits, bits & ~bit));
+            return true;
+        }
+
+        // 预留一个名额（只扣减计数）
+        boolean tryReserve() {
+            int count;
+            do {
+                count = freeCount.get();
+                if (count <= 0) {
+                    return false;
+                }
+            } while (!freeCount.compareAndSet(count, count - 1));
+            return true;
+        }
+
+        // 撤销预留：位图未被修改，直接加回计数
+        void cancelReservation() {
+            freeCount.incrementAndGet();
+        }
+
+        /**
+         * 取出一个已预留的工具：已扣减过计数，位图中必有空闲位（最多与归还方错开一次置位，很快就能取到）
+         * 扫描 MAX_TAKE_PASSES 轮仍取不到说明计数与位图不一致，撤销预留并抛出异常
+         */
+        Tools takeReserved() {
+            for (int pass = 0; pass < MAX_TAKE_PASSES; pass++) {
+                for (int w = 0; w < usedWords; w++) {
+                    long bits;
+                    while ((bits = freeBits.get(w)) != 0L) {
+                        long lowest = bits & -bits;
+                        if (freeBits.compareAndSet(w, bits, bits & ~lowest)) {
+                            return slots[w * 64 + Long.numberOfTrailingZeros(lowest)];
+                        }
+                    }
+                }
+                Thread.onSpinWait();
+            }
+            cancelReservation();
+            throw new IllegalStateException("工具空闲计数与位图不一致：已预留名额但扫描 " + MAX_TAKE_PASSES + " 轮未找到空闲工具");
+        }
+
+        void release(Tools tool) {
+            int slot = tool.getPoolSlot();
+            int w = slot >>> 6;
+            long bit = 1L << (slot & 63);
+            long bits;
+            do {
+                bits = freeBits.get(w);
+                if ((bits & bit) != 0L) {
+                    return; // 已在空闲池中，重复归还忽略
+                }
+            } while (!freeBits.compareAndSet(w, bits, bits | bit));
+            freeCount.incrementAndGet();
+        }
+    }
+}
@@ -10,5 +10,9 @@ public interface ToolService {
     // 获取当前系统中所有工具的列表
     List<Tools> getAllTools();
 
-    // ... 其他工具管理方法
+    // 运行中新增指定类型的工具
+    List<Tools> addTools(Tools.ToolType type, int count);
+
+    // 退役工具：空闲立即移除，使用中则归还后移除；返回是否已立即移除
+    boolean retireTool(Integer toolId);
 }
\ No newline at end of file
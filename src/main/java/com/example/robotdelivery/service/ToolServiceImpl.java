@@ -15,6 +15,10 @@ public class ToolServiceImpl implements ToolService {
     @Autowired
     private ToolManager toolManager;
 
+    // 工具池变化后唤醒调度线程
+    @Autowired
+    private ResourceManagerThread resourceManagerThread;
+
     /**
      * 实现接口方法：获取所有工具的列表（供 Controller 使用）
      * @return 存储在 ToolManager 中的所有 Tools 实例列表
@@ -25,4 +29,23 @@ public class ToolServiceImpl implements ToolService {
         return toolManager.getAllToolInstances();
     }
 
+    @Override
+    public List<Tools> addTools(Tools.ToolType type, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("新增数量必须大于0");
+        }
+        List<Tools> added = toolManager.addTools(type, count);
+        System.out.println("[ToolService] 新增" + type + " " + count + "个，当前在役：" + toolManager.activeCounts());
+        // 新工具可能让等待中的订单变为可分配
+        resourceManagerThread.signalDispatcher();
+        return added;
+    }
+
+    @Override
+    public boolean retireTool(Integer toolId) {
+        boolean removed = toolManager.retireTool(toolId);
+        System.out.println("[ToolService] 退役工具" + toolId + (removed ? "完成" : "（使用中，归还后移除）") + "，当前在役：" + toolManager.activeCounts());
+        return removed;
+    }
+
 }
\ No newline at end of file
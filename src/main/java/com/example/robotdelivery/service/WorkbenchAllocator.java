@@ -0,0 +1,82 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Partition;
+
+import java.util.List;
+
+/**
+ * 工作台空间分配器：MemoryManager 的可插拔后端
+ * 实现类不做线程同步，由 MemoryManager 统一加锁；分区ID在创建时分配，之后不再重新编号
+ */
+public interface WorkbenchAllocator {
+
+    /**
+     * 分配器名称（对应配置 robot.workbench.allocator）
+     */
+    String getName();
+
+    /**
+     * 放置策略名称；伙伴系统的放置方式由算法本身决定，返回分配器名称
+     */
+    default String getPlacementName() {
+        return getName();
+    }
+
+    /**
+     * 以给定总空间重置分配器（全部空闲）
+     */
+    void init(int totalSpace);
+
+    /**
+     * 为订单分配至少 size 的空间
+     * @return 分配到的分区；没有足够大的连续空闲块时返回 null
+     */
+    Partition allocate(int orderId, int size, String dishName);
+
+    /**
+     * 释放订单占用的分区并与相邻空闲块合并
+     * @return 订单未占用分区时返回 false
+     */
+    boolean release(int orderId);
+
+    boolean isAllocated(int orderId);
+
+    /**
+     * 已分配空间（含分配器的内部碎片）
+     */
+    int getUsedSpace();
+
+    /**
+     * 当前最大的连续空闲块
+     */
+    int getLargestFreeBlock();
+
+    /**
+     * 按起始地址排序的全部分区（新列表，仅供展示/打印）
+     */
+    List<Partition> getPartitions();
+
+    /**
+     * 增量碎片整理：最多搬移 maxMoves 个已分配分区到更低地址，单步耗时有界
+     * @return 本步实际搬移的分区数；已紧凑或不支持整理时返回 0
+     */
+    default int compactStep(int maxMoves) {
+        return 0;
+    }
+
+    /**
+     * 按名称创建分配器（每个工作台各自持有一个实例）
+     * @param placementName 放置策略（仅 free-list 使用，buddy 忽略）
+     * @throws IllegalArgumentException 未知名称
+     */
+    static WorkbenchAllocator create(String name, String placementName) {
+        switch (name) {
+            case FreeListAllocator.NAME:
+                return new FreeListAllocator(PlacementPolicy.create(placementName));
+            case BuddyAllocator.NAME:
+                return new BuddyAllocator();
+            default:
+                throw new IllegalArgumentException("未知的工作台分配器：" + name + "，可选：free-list / buddy");
+        }
+    }
+}
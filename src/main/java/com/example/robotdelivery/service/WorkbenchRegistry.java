@@ -0,0 +1,250 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Memory;
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Robot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 多工作台注册表：按配置创建 N 个互相独立的工作台（各自的分配器与锁）
+ * 放置规则（类似 NUMA）：每个机器人有固定的“本地”工作台，本地放不下时按环形距离溢出到相邻工作台
+ * 各工作台在全局地址空间中首尾相接，分区展示地址为全局地址
+ * 同一订单的登记变更（预留、正式分配、释放、预留到期）都在 benchByOrder.compute(订单ID) 内完成，按订单串行；
+ * 不同订单之间只竞争各自目标工作台的锁，注册表本身不设全局锁
+ */
+@Service
+public class WorkbenchRegistry {
+
+    @Value("${robot.workbench.count:1}")
+    private int workbenchCount; // 工作台数量
+
+    @Value("${robot.workbench.size:100}")
+    private int workbenchSize; // 每个工作台的空间
+
+    @Value("${robot.workbench.allocator:free-list}")
+    private String allocatorName;
+
+    @Value("${robot.workbench.placement:best}")
+    private String placementName;
+
+    @Value("${robot.workbench.compact.max-moves:2}")
+    private int compactMaxMoves;
+
+    @Value("${robot.workbench.compact.threshold:0.3}")
+    private double compactThreshold;
+
+    private List<MemoryManager> workbenches = Collections.emptyList();
+    // 订单ID → 订单所在工作台（释放时直接定位，不逐个尝试）；其 compute 同时充当该订单的登记锁
+    private final ConcurrentHashMap<Integer, MemoryManager> benchByOrder = new ConcurrentHashMap<>();
+    // 订单ID → 为该订单预留了空间的工作台
+    private final ConcurrentHashMap<Integer, MemoryManager> reservedBench = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (workbenchCount < 1) {
+            throw new IllegalArgumentException("robot.workbench.count 至少为 1：" + workbenchCount);
+        }
+        List<MemoryManager> created = new ArrayList<>(workbenchCount);
+        for (int i = 0; i < workbenchCount; i++) {
+            Memory memory = new Memory(i + 1, i * workbenchSize, workbenchSize);
+            created.add(new MemoryManager(memory, allocatorName, placementName, compactMaxMoves, compactThreshold));
+        }
+        workbenches = Collections.unmodifiableList(created);
+        System.out.println("[WorkbenchRegistry] 工作台初始化完成，数量：" + workbenchCount + "，每个空间：" + workbenchSize);
+    }
+
+    public List<MemoryManager> getWorkbenches() {
+        return workbenches;
+    }
+
+    /**
+     * 机器人的本地工作台（按机器人ID固定映射）
+     */
+    public MemoryManager homeWorkbench(Robot robot) {
+        return workbenches.get(Math.floorMod(robot.getRobotId() - 1, workbenches.size()));
+    }
+
+    /**
+     * 放置顺序：本地工作台，然后按环形距离由近到远（+1、-1、+2、-2 ……）
+     */
+    public List<MemoryManager> placementOrder(Robot robot) {
+        int n = workbenches.size();
+        int home = Math.floorMod(robot.getRobotId() - 1, n);
+        List<MemoryManager> order = new ArrayList<>(n);
+        order.add(workbenches.get(home));
+        for (int distance = 1; order.size() < n; distance++) {
+            order.add(workbenches.get((home + distance) % n));
+            if (order.size() < n) {
+                order.add(workbenches.get(Math.floorMod(home - distance, n)));
+            }
+        }
+        return order;
+    }
+
+    /**
+     * 预计会接收该订单的工作台：有预留时为预留所在工作台，否则为放置顺序中第一个总空闲足够的（读快照，不加锁），
+     * 都不够时返回本地工作台；供银行家算法做空间检查
+     */
+    public MemoryManager candidateFor(Robot robot, Order order) {
+        MemoryManager reserved = reservedBench.get(order.getOrderId());
+        if (reserved != null) {
+            return reserved;
+        }
+        int requiredSpace = order.getDish().getRequiredSpace();
+        for (MemoryManager bench : placementOrder(robot)) {
+            if (bench.getFreeSpace() >= requiredSpace) {
+                return bench;
+            }
+        }
+        return homeWorkbench(robot);
+    }
+
+    /**
+     * 按放置顺序为订单分配工作台空间，返回分配成功的工作台；都放不下时返回 null
+     */
+    public MemoryManager allocateForOrder(Robot robot, Order order) {
+        int requiredSpace = order.getDish().getRequiredSpace();
+        List<MemoryManager> candidates = placementOrder(robot);
+        MemoryManager[] allocated = {null};
+        benchByOrder.compute(order.getOrderId(), (orderId, current) -> {
+            if (current != null) {
+                return current; // 已正式分配，拒绝重复分配
+            }
+            // 已预留：直接在预留所在工作台转为正式分配（预留若刚好到期，则在该工作台按普通方式分配）
+            MemoryManager reserved = reservedBench.remove(orderId);
+            if (reserved != null && reserved.allocateForOrder(order)) {
+                allocated[0] = reserved;
+                return reserved;
+            }
+            for (MemoryManager bench : candidates) {
+                // 总空闲都不够的工作台直接跳过，不去争它的锁
+                if (bench.getFreeSpace() >= requiredSpace && bench.allocateForOrder(order)) {
+                    allocated[0] = bench;
+                    return bench;
+                }
+            }
+            return null;
+        });
+        MemoryManager home = candidates.get(0);
+        if (allocated[0] != null && allocated[0] != home) {
+            System.out.println("订单" + order.getOrderId() + "本地工作台" + home.getWorkbenchId()
+                    + "空间不足，溢出到相邻工作台" + allocated[0].getWorkbenchId());
+        }
+        return allocated[0];
+    }
+
+    /**
+     * 释放订单占用的分区或预留（定位到订单所在工作台）
+     */
+    public boolean releaseOrderPartition(int orderId) {
+        boolean[] released = {false};
+        benchByOrder.compute(orderId, (id, bench) -> {
+            MemoryManager reserved = reservedBench.remove(id);
+            if (reserved != null) {
+                released[0] = reserved.releaseOrderPartition(id);
+            } else if (bench != null) {
+                released[0] = bench.releaseOrderPartition(id);
+            }
+            return null;
+        });
+        return released[0];
+    }
+
+    /**
+     * 为排队订单预留连续空间：选最大连续空闲块最大的工作台（不考虑机器人亲和，此时尚未选定机器人）
+     * 订单已有预留或已被派发（已正式分配）时不再预留
+     * @return 是否预留成功
+     */
+    public boolean reserve(Order order, long deadlineMillis) {
+        int requiredSpace = order.getDish().getRequiredSpace();
+        boolean[] reserved = {false};
+        benchByOrder.compute(order.getOrderId(), (orderId, current) -> {
+            if (current != null || reservedBench.containsKey(orderId)) {
+                return current;
+            }
+            MemoryManager best = workbenches.stream()
+                    .max(Comparator.comparingInt(MemoryManager::getLargestFreeBlock))
+                    .orElse(null);
+            if (best != null && best.getLargestFreeBlock() >= requiredSpace && best.reserve(order, deadlineMillis)) {
+                reservedBench.put(orderId, best);
+                reserved[0] = true;
+            }
+            return null; // 预留不算正式分配
+        });
+        return reserved[0];
+    }
+
+    public boolean hasReservation(int orderId) {
+        return reservedBench.containsKey(orderId);
+    }
+
+    /**
+     * 释放全部工作台上已到期的预留，返回这些订单ID
+     */
+    public List<Integer> expireReservations(long nowMillis) {
+        List<Integer> expired = new ArrayList<>();
+        for (MemoryManager bench : workbenches) {
+            for (Integer orderId : bench.expireReservations(nowMillis)) {
+                // 与该订单的预留/分配串行：只删除仍指向本工作台的登记
+                benchByOrder.compute(orderId, (id, current) -> {
+                    reservedBench.remove(id, bench);
+                    return current;
+                });
+                expired.add(orderId);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 调度空闲时对每个工作台各做一步有界整理，返回总搬移分区数
+     */
+    public int compactIfFragmented() {
+        int moved = 0;
+        for (MemoryManager bench : workbenches) {
+            moved += bench.compactIfFragmented();
+        }
+        return moved;
+    }
+
+    public void printMemoryStatus() {
+        for (MemoryManager bench : workbenches) {
+            bench.printMemoryStatus();
+        }
+    }
+
+    /**
+     * 所有工作台中最大的连续空闲块（读快照，不加锁）
+     */
+    public int getLargestFreeBlock() {
+        int largest = 0;
+        for (MemoryManager bench : workbenches) {
+            largest = Math.max(largest, bench.getLargestFreeBlock());
+        }
+        return largest;
+    }
+
+    public int getTotalSpace() {
+        int total = 0;
+        for (MemoryManager bench : workbenches) {
+            total += bench.getTotalWorkbenchSize();
+        }
+        return total;
+    }
+
+    public int getUsedSpace() {
+        int used = 0;
+        for (MemoryManager bench : workbenches) {
+            used += bench.getUsedSpace();
+        }
+        return used;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Partition;
+
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * 最差适配：总是切分最大的空闲块（O(log n)，余块较大仍可复用，但大需求更容易失败）
+ */
+public class WorstFitPlacement implements PlacementPolicy {
+
+    public static final String NAME = "worst";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Partition select(Partition head, NavigableMap<Long, Partition> freeBySize, int size) {
+        Map.Entry<Long, Partition> largest = freeBySize.lastEntry();
+        if (largest == null || largest.getValue().getSize() < size) {
+            return null;
+        }
+        return largest.getValue();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Dish;
+import com.example.robotdelivery.pojo.Memory;
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Tools;
+import com.example.robotdelivery.pojo.Tools.ToolType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 银行家准入预检单元测试：资源向量 = 各类空闲工具数 + 目标工作台可用空间（含订单自身预留）
+ */
+public class BankerAlgorithmTest {
+
+    private ToolManager toolManager;
+    private BankerAlgorithm banker;
+    private MemoryManager bench;
+
+    @BeforeEach
+    public void setUp() {
+        toolManager = ToolManagerTest.newToolManager(512); // 2 烤箱、2 煎锅、1 炸锅
+        banker = new BankerAlgorithm();
+        ReflectionTestUtils.setField(banker, "toolManager", toolManager);
+        bench = new MemoryManager(new Memory(1, 0, 100), FreeListAllocator.NAME, "best", 2, 0.3);
+    }
+
+    @Test
+    public void fitsWhenRequestWithinAvailable() {
+        assertTrue(banker.fitsAvailable(order(1, 20, true, false, true), bench));
+    }
+
+    @Test
+    public void rejectsWhenAnyToolTypeIsExhausted() {
+        toolManager.tryAcquire(ToolType.FRY_POT, 2);
+        assertFalse(banker.fitsAvailable(order(1, 20, false, false, true), bench));
+        // 不需要炸锅的订单不受影响
+        assertTrue(banker.fitsAvailable(order(2, 20, true, true, false), bench));
+    }
+
+    @Test
+    public void rejectsWhenWorkbenchSpaceIsShort() {
+        assertTrue(bench.allocateForOrder(order(9, 90, false, false, false)));
+        assertFalse(banker.fitsAvailable(order(1, 20, false, false, false), bench));
+        assertTrue(banker.fitsAvailable(order(2, 10, false, false, false), bench));
+    }
+
+    @Test
+    public void ownReservationCountsAsAvailableButOthersDoNot() {
+        assertTrue(bench.allocateForOrder(order(9, 60, false, false, false)));
+        Order reserved = order(1, 30, false, false, false);
+        assertTrue(bench.reserve(reserved, Long.MAX_VALUE));
+        // 工作台只剩 10 空闲：预留的订单自己能通过，其他同样大小的订单不能
+        assertEquals(10, bench.getSnapshot().getFreeSpace());
+        assertTrue(banker.fitsAvailable(reserved, bench));
+        assertFalse(banker.fitsAvailable(order(2, 30, false, false, false), bench));
+    }
+
+    @Test
+    public void reflectsToolsHeldByReserveAllUntilReleased() {
+        Order order = order(1, 20, false, false, true);
+        EnumMap<ToolType, Tools> held = toolManager.reserveAll(EnumSet.of(ToolType.FRY_POT, ToolType.OVEN), 1);
+        assertNotNull(held);
+        assertFalse(banker.fitsAvailable(order, bench));
+        toolManager.release(held.get(ToolType.FRY_POT));
+        assertTrue(banker.fitsAvailable(order, bench));
+    }
+
+    static Order order(int orderId, int requiredSpace, boolean oven, boolean fryPan, boolean fryPot) {
+        Dish dish = new Dish();
+        dish.setDishName("dish" + orderId);
+        dish.setRequiredSpace(requiredSpace);
+        dish.setNeedOven(oven);
+        dish.setNeedFryPan(fryPan);
+        dish.setNeedFryPot(fryPot);
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setDish(dish);
+        return order;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Dish;
+import com.example.robotdelivery.pojo.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 同菜品合并烹饪单元测试：只合并同菜品、同空间、未预留的订单，批次上限与合并时长
+ */
+public class BatchCookingServiceTest {
+
+    private BatchCookingService batching;
+    private WorkbenchRegistry registry;
+    private PrioritySchedulingAlgorithm scheduler;
+    private AgingPriorityPolicy policy;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new WorkbenchRegistry();
+        ReflectionTestUtils.setField(registry, "workbenchCount", 1);
+        ReflectionTestUtils.setField(registry, "workbenchSize", 100);
+        ReflectionTestUtils.setField(registry, "allocatorName", FreeListAllocator.NAME);
+        ReflectionTestUtils.setField(registry, "placementName", "best");
+        registry.init();
+
+        batching = new BatchCookingService();
+        ReflectionTestUtils.setField(batching, "workbenchRegistry", registry);
+        ReflectionTestUtils.setField(batching, "enabled", true);
+        ReflectionTestUtils.setField(batching, "maxSize", 3);
+        ReflectionTestUtils.setField(batching, "maxWaitMs", 0L); // 不等待，只合并已在队列中的
+        ReflectionTestUtils.setField(batching, "extraItemRatio", 0.5);
+
+        policy = new AgingPriorityPolicy();
+        ReflectionTestUtils.setField(policy, "agingMs", 10_000L);
+        scheduler = new PrioritySchedulingAlgorithm(PrioritySchedulingAlgorithm.newQueue());
+    }
+
+    @Test
+    public void collectsSameDishAndSpaceUpToMaxSize() throws InterruptedException {
+        scheduler.enqueue(order(2, 7, 10), policy);
+        scheduler.enqueue(order(3, 8, 10), policy); // 不同菜品
+        scheduler.enqueue(order(4, 7, 20), policy); // 空间不同，不能共用分区
+        scheduler.enqueue(order(5, 7, 10), policy);
+        scheduler.enqueue(order(6, 7, 10), policy); // 超出批次上限
+        Order leader = order(1, 7, 10);
+
+        List<Order> followers = batching.collect(leader, scheduler, policy);
+        assertEquals(List.of(2, 5), followers.stream().map(Order::getOrderId).toList());
+        assertEquals(List.of(3, 4, 6), scheduler.sortedSnapshot().stream().map(Order::getOrderId).toList());
+        assertEquals(followers, batching.getFollowers(1));
+        assertEquals(followers, batching.takeFollowers(1));
+        assertTrue(batching.getFollowers(1).isEmpty());
+    }
+
+    @Test
+    public void reservedOrdersKeepTheirReservation() throws InterruptedException {
+        Order reserved = order(2, 7, 10);
+        assertTrue(registry.reserve(reserved, Long.MAX_VALUE));
+        scheduler.enqueue(reserved, policy);
+        assertTrue(batching.collect(order(1, 7, 10), scheduler, policy).isEmpty());
+        assertEquals(1, scheduler.sortedSnapshot().size());
+    }
+
+    @Test
+    public void disabledCollectsNothing() throws InterruptedException {
+        ReflectionTestUtils.setField(batching, "enabled", false);
+        scheduler.enqueue(order(2, 7, 10), policy);
+        assertTrue(batching.collect(order(1, 7, 10), scheduler, policy).isEmpty());
+        assertEquals(1, scheduler.sortedSnapshot().size());
+    }
+
+    @Test
+    public void batchCookTimeSharesSetupAcrossItems() {
+        assertEquals(1000, batching.batchCookTime(1000, 1));
+        assertEquals(2000, batching.batchCookTime(1000, 3));
+    }
+
+    private static Order order(int orderId, int dishId, int requiredSpace) {
+        Dish dish = new Dish();
+        dish.setDishId(dishId);
+        dish.setDishName("dish" + dishId);
+        dish.setRequiredSpace(requiredSpace);
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setPriority(1);
+        order.setCreateTime(LocalDateTime.of(2025, 1, 1, 12, 0, 0));
+        order.setDish(dish);
+        return order;
+    }
+}
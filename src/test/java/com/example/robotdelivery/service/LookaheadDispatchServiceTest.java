@@ -0,0 +1,122 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Dish;
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Tools.ToolType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 前瞻调度单元测试：炸锅被占用时需要炸锅的队头被越过，公平窗口按订单计数
+ */
+public class LookaheadDispatchServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0, 0);
+
+    private LookaheadDispatchService lookahead;
+    private PrioritySchedulingAlgorithm scheduler;
+    private AgingPriorityPolicy policy;
+
+    @BeforeEach
+    public void setUp() {
+        ToolManager toolManager = ToolManagerTest.newToolManager(512); // 只有 1 个炸锅
+        assertNotNull(toolManager.tryAcquire(ToolType.FRY_POT, 99));
+        WorkbenchRegistry registry = new WorkbenchRegistry();
+        ReflectionTestUtils.setField(registry, "workbenchCount", 1);
+        ReflectionTestUtils.setField(registry, "workbenchSize", 100);
+        ReflectionTestUtils.setField(registry, "allocatorName", FreeListAllocator.NAME);
+        ReflectionTestUtils.setField(registry, "placementName", "best");
+        registry.init();
+
+        lookahead = new LookaheadDispatchService();
+        ReflectionTestUtils.setField(lookahead, "toolManager", toolManager);
+        ReflectionTestUtils.setField(lookahead, "workbenchRegistry", registry);
+        ReflectionTestUtils.setField(lookahead, "enabled", true);
+        ReflectionTestUtils.setField(lookahead, "topK", 4);
+        ReflectionTestUtils.setField(lookahead, "fairnessWindow", 2);
+
+        policy = new AgingPriorityPolicy();
+        ReflectionTestUtils.setField(policy, "agingMs", 10_000L);
+        scheduler = new PrioritySchedulingAlgorithm(PrioritySchedulingAlgorithm.newQueue());
+        for (int id = 10; id < 20; id++) {
+            scheduler.enqueue(order(id, false), policy);
+        }
+    }
+
+    @Test
+    public void runnableHeadIsNotBypassed() {
+        Order head = order(1, false);
+        assertSame(head, lookahead.choose(head, scheduler, policy));
+        assertEquals(10, scheduler.sortedSnapshot().size());
+    }
+
+    @Test
+    public void blockedHeadIsRequeuedAndBypassedAtMostFairnessWindowTimes() {
+        Order head = order(1, true);
+        for (int round = 0; round < 2; round++) {
+            Order chosen = lookahead.choose(head, scheduler, policy);
+            assertNotSame(head, chosen);
+            assertTrue(scheduler.remove(head)); // 队头已放回队列，下一轮再取出
+            lookahead.onDispatchResult(chosen, true);
+        }
+        assertEquals(2, lookahead.bypassedCount(head));
+        assertSame(head, lookahead.choose(head, scheduler, policy));
+    }
+
+    @Test
+    public void failedSubstituteDoesNotCount() {
+        Order head = order(1, true);
+        Order chosen = lookahead.choose(head, scheduler, policy);
+        assertNotSame(head, chosen);
+        lookahead.onDispatchResult(chosen, false);
+        assertEquals(0, lookahead.bypassedCount(head));
+    }
+
+    @Test
+    public void interleavedHeadsKeepSeparateCounts() {
+        // 两个调度线程轮流取到不同的阻塞队头：计数互不清零，两者都能到达公平窗口
+        Order first = order(1, true);
+        Order second = order(2, true);
+        for (int round = 0; round < 2; round++) {
+            for (Order head : new Order[]{first, second}) {
+                Order chosen = lookahead.choose(head, scheduler, policy);
+                assertNotSame(head, chosen);
+                scheduler.remove(head);
+                lookahead.onDispatchResult(chosen, true);
+            }
+        }
+        assertSame(first, lookahead.choose(first, scheduler, policy));
+        assertSame(second, lookahead.choose(second, scheduler, policy));
+    }
+
+    @Test
+    public void headDispatchClearsItsCount() {
+        Order head = order(1, true);
+        Order chosen = lookahead.choose(head, scheduler, policy);
+        scheduler.remove(head);
+        lookahead.onDispatchResult(chosen, true);
+        assertEquals(1, lookahead.bypassedCount(head));
+        lookahead.onDispatchResult(head, true);
+        assertEquals(0, lookahead.bypassedCount(head));
+    }
+
+    private static Order order(int orderId, boolean fryPot) {
+        Dish dish = new Dish();
+        dish.setDishName("dish" + orderId);
+        dish.setRequiredSpace(10);
+        dish.setNeedOven(false);
+        dish.setNeedFryPan(false);
+        dish.setNeedFryPot(fryPot);
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setPriority(1);
+        order.setCreateTime(T0);
+        order.setDish(dish);
+        return order;
+    }
+}
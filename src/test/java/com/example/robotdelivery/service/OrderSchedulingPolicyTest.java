@@ -0,0 +1,125 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Dish;
+import com.example.robotdelivery.pojo.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 各订单调度策略的排序键单元测试
+ */
+public class OrderSchedulingPolicyTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0, 0);
+
+    private MultiLevelFeedbackPolicy mlfq;
+    private final ShortestJobFirstPolicy sjf = new ShortestJobFirstPolicy();
+    private ShortestRemainingTimePolicy srtf;
+    private EarliestDeadlineFirstPolicy edf;
+
+    @BeforeEach
+    public void setUp() {
+        mlfq = new MultiLevelFeedbackPolicy();
+        ReflectionTestUtils.setField(mlfq, "quanta", new long[]{2500, 1500});
+        ReflectionTestUtils.setField(mlfq, "promoteMs", 3000L);
+        ReflectionTestUtils.setField(mlfq, "demoteAfter", 2);
+        mlfq.init(); // 时间片排序为 1500, 2500，共 3 级
+        srtf = new ShortestRemainingTimePolicy();
+        ReflectionTestUtils.setField(srtf, "weight", 4L);
+        edf = new EarliestDeadlineFirstPolicy();
+        ReflectionTestUtils.setField(edf, "slaMs", new long[]{30000, 20000, 10000});
+    }
+
+    @Test
+    public void sjfKeyIsCookTimeAndUnknownGoesLast() {
+        assertEquals(1200, sjf.queueKey(order(1, T0, 1200L)));
+        Order noDish = order(2, T0, 1200L);
+        noDish.setDish(null);
+        assertEquals(Long.MAX_VALUE / 4, sjf.queueKey(noDish));
+    }
+
+    @Test
+    public void srtfKeyIsArrivalPlusWeightedCookTime() {
+        Order longDish = order(1, T0, 3000L);
+        assertEquals(OrderSchedulingPolicy.createMillis(longDish) + 3000 * 4, srtf.queueKey(longDish));
+        // 时长差 2000ms × 4 = 8 秒：晚到 7 秒的短菜仍在前，晚到 9 秒则排在后
+        assertTrue(srtf.queueKey(order(2, T0.plusSeconds(7), 1000L)) < srtf.queueKey(longDish));
+        assertTrue(srtf.queueKey(longDish) < srtf.queueKey(order(3, T0.plusSeconds(9), 1000L)));
+    }
+
+    @Test
+    public void srtfKeySaturatesInsteadOfOverflowing() {
+        Order noDish = order(1, T0, 1000L);
+        noDish.setDish(null); // 哨兵值 Long.MAX_VALUE / 4，× 8 溢出
+        ReflectionTestUtils.setField(srtf, "weight", 8L);
+        assertEquals(Long.MAX_VALUE, srtf.queueKey(noDish));
+        ReflectionTestUtils.setField(srtf, "weight", Long.MAX_VALUE / 1000);
+        assertEquals(Long.MAX_VALUE, srtf.queueKey(order(2, T0, 1000L)));
+    }
+
+    @Test
+    public void edfKeyIsArrivalPlusSlaOfPriority() {
+        Order normal = order(1, T0, 1000L);
+        normal.setPriority(1);
+        assertEquals(OrderSchedulingPolicy.createMillis(normal) + 30000, edf.queueKey(normal));
+        Order urgent = order(2, T0.plusSeconds(15), 1000L);
+        urgent.setPriority(3);
+        // 截止时间 T0+25s 早于 T0+30s
+        assertTrue(edf.queueKey(urgent) < edf.queueKey(normal));
+    }
+
+    @Test
+    public void edfSlaClampsOutOfRangePriority() {
+        assertEquals(30000, edf.slaOf(null));
+        assertEquals(30000, edf.slaOf(0));
+        assertEquals(20000, edf.slaOf(2));
+        assertEquals(10000, edf.slaOf(9));
+    }
+
+    @Test
+    public void mlfqInitialLevelFollowsCookTime() {
+        assertEquals(0, mlfq.level(order(1, T0, 1000L)));
+        assertEquals(0, mlfq.level(order(2, T0, 1500L)));
+        assertEquals(1, mlfq.level(order(3, T0, 2000L)));
+        assertEquals(2, mlfq.level(order(4, T0, 9000L)));
+        Order noDish = order(5, T0, 1000L);
+        noDish.setDish(null); // 时长未知，进入最低级
+        assertEquals(2, mlfq.level(noDish));
+    }
+
+    @Test
+    public void mlfqDemotesEveryDemoteAfterRejectionsUpToLowestLevel() {
+        Order order = order(1, T0, 1000L);
+        order.setRejections(1);
+        assertEquals(0, mlfq.level(order));
+        order.setRejections(2);
+        assertEquals(1, mlfq.level(order));
+        order.setRejections(10);
+        assertEquals(2, mlfq.level(order));
+    }
+
+    @Test
+    public void mlfqWaitingPromotesOneLevelPerPromoteMs() {
+        Order longDish = order(1, T0, 2000L); // 第 1 级
+        Order shortLater = order(2, T0.plusSeconds(3), 1000L); // 第 0 级，晚到 promoteMs
+        assertEquals(mlfq.queueKey(longDish), mlfq.queueKey(shortLater));
+        Order shortEvenLater = order(3, T0.plusSeconds(4), 1000L);
+        assertTrue(mlfq.queueKey(longDish) < mlfq.queueKey(shortEvenLater));
+    }
+
+    static Order order(int orderId, LocalDateTime createTime, Long cookTime) {
+        Dish dish = new Dish();
+        dish.setDishName("dish" + orderId);
+        dish.setCookTime(cookTime);
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCreateTime(createTime);
+        order.setDish(dish);
+        return order;
+    }
+}
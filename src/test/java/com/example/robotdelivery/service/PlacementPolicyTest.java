@@ -0,0 +1,100 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Dish;
+import com.example.robotdelivery.pojo.Memory;
+import com.example.robotdelivery.pojo.Order;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 放置策略与碎片指标单元测试
+ * 公共布局（总空间 100）：[0,10) 占用，[10,40) 空闲 30，[40,50) 占用，[50,65) 空闲 15，[65,75) 占用，[75,100) 空闲 25
+ */
+public class PlacementPolicyTest {
+
+    @Test
+    public void firstFitTakesLowestAddressHole() {
+        assertEquals(10, fragmented("first").allocate(100, 12, "x").getStartAddress());
+    }
+
+    @Test
+    public void bestFitTakesSmallestSufficientHole() {
+        assertEquals(50, fragmented("best").allocate(100, 12, "x").getStartAddress());
+    }
+
+    @Test
+    public void worstFitTakesLargestHole() {
+        FreeListAllocator allocator = fragmented("worst");
+        assertEquals(10, allocator.allocate(100, 12, "x").getStartAddress());
+        // 剩余空闲块：18@22、15@50、25@75
+        assertEquals(75, allocator.allocate(101, 12, "y").getStartAddress());
+    }
+
+    @Test
+    public void nextFitContinuesFromLastAllocation() {
+        FreeListAllocator allocator = fragmented("next");
+        // 上次分配结束于 75
+        assertEquals(75, allocator.allocate(100, 12, "x").getStartAddress());
+        assertEquals(87, allocator.allocate(101, 12, "y").getStartAddress());
+        // 末尾放不下，回绕到地址 0 之后的第一个空闲块
+        assertEquals(10, allocator.allocate(102, 12, "z").getStartAddress());
+    }
+
+    @Test
+    public void unknownPlacementIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PlacementPolicy.create("random"));
+    }
+
+    @Test
+    public void snapshotReportsExternalFragmentation() {
+        MemoryManager bench = new MemoryManager(new Memory(1, 0, 100), FreeListAllocator.NAME, "best", 0, 0.3);
+        for (int id = 1; id <= 5; id++) {
+            assertTrue(bench.allocateForOrder(order(id, new int[]{10, 30, 10, 15, 10}[id - 1])));
+        }
+        bench.releaseOrderPartition(2);
+        bench.releaseOrderPartition(4);
+        // 总空闲 70，最大连续空闲块 30
+        assertEquals(30, bench.getLargestFreeBlock());
+        assertEquals(1.0 - 30.0 / 70.0, bench.getExternalFragmentation(), 1e-9);
+        assertEquals(0, bench.getFragmentationFailures());
+    }
+
+    @Test
+    public void allocationBlockedByFragmentationIsCounted() {
+        // compactMaxMoves = 0：不整理，只计数
+        MemoryManager bench = new MemoryManager(new Memory(1, 0, 100), FreeListAllocator.NAME, "best", 0, 0.3);
+        for (int id = 1; id <= 5; id++) {
+            bench.allocateForOrder(order(id, new int[]{10, 30, 10, 15, 10}[id - 1]));
+        }
+        bench.releaseOrderPartition(2);
+        bench.releaseOrderPartition(4);
+        assertFalse(bench.allocateForOrder(order(6, 40)));
+        assertEquals(1, bench.getFragmentationFailures());
+        // 总空闲也不够时不算碎片
+        assertFalse(bench.allocateForOrder(order(7, 80)));
+        assertEquals(1, bench.getFragmentationFailures());
+    }
+
+    private static FreeListAllocator fragmented(String placementName) {
+        FreeListAllocator allocator = new FreeListAllocator(PlacementPolicy.create(placementName));
+        allocator.init(100);
+        int[] sizes = {10, 30, 10, 15, 10};
+        for (int i = 0; i < sizes.length; i++) {
+            allocator.allocate(i + 1, sizes[i], "dish" + (i + 1));
+        }
+        allocator.release(2);
+        allocator.release(4);
+        return allocator;
+    }
+
+    private static Order order(int orderId, int requiredSpace) {
+        Dish dish = new Dish();
+        dish.setDishName("dish" + orderId);
+        dish.setRequiredSpace(requiredSpace);
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setDish(dish);
+        return order;
+    }
+}
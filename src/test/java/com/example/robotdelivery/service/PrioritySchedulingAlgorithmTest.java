@@ -0,0 +1,97 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 等待队列（按排序键的堆）与“优先级 + 老化”排序键单元测试
+ */
+public class PrioritySchedulingAlgorithmTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0, 0);
+
+    private PriorityBlockingQueue<Order> queue;
+    private PrioritySchedulingAlgorithm scheduler;
+    private AgingPriorityPolicy aging;
+
+    @BeforeEach
+    public void setUp() {
+        queue = PrioritySchedulingAlgorithm.newQueue();
+        scheduler = new PrioritySchedulingAlgorithm(queue);
+        aging = new AgingPriorityPolicy();
+        ReflectionTestUtils.setField(aging, "agingMs", 10_000L);
+    }
+
+    @Test
+    public void higherPriorityIsWorthAgingStepsOfWaiting() {
+        Order old = order(1, 1, T0);
+        Order urgent = order(2, 3, T0.plusSeconds(15));
+        // 优先级差 2 档 = 20 秒，新到的高优先级订单仍在前
+        assertTrue(aging.queueKey(urgent) < aging.queueKey(old));
+        // 晚到 25 秒则等待更久的低优先级订单在前
+        Order late = order(3, 3, T0.plusSeconds(25));
+        assertTrue(aging.queueKey(old) < aging.queueKey(late));
+    }
+
+    @Test
+    public void queuePollsInKeyOrderWithOrderIdTieBreak() {
+        scheduler.enqueue(order(3, 1, T0), aging);
+        scheduler.enqueue(order(1, 1, T0), aging);
+        scheduler.enqueue(order(2, 5, T0), aging);
+        assertEquals(2, queue.poll().getOrderId());
+        assertEquals(1, queue.poll().getOrderId());
+        assertEquals(3, queue.poll().getOrderId());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void topReturnsFilteredPrefixWithoutModifyingQueue() {
+        for (int id = 1; id <= 5; id++) {
+            scheduler.enqueue(order(id, id, T0), aging);
+        }
+        List<Order> top = scheduler.top(2);
+        assertEquals(List.of(5, 4), top.stream().map(Order::getOrderId).toList());
+        List<Order> odd = scheduler.top(2, order -> order.getOrderId() % 2 == 1);
+        assertEquals(List.of(5, 3), odd.stream().map(Order::getOrderId).toList());
+        assertEquals(5, queue.size());
+        assertTrue(scheduler.top(0).isEmpty());
+    }
+
+    @Test
+    public void removeTakesSpecificOrderOnce() {
+        Order first = order(1, 1, T0);
+        scheduler.enqueue(first, aging);
+        scheduler.enqueue(order(2, 1, T0), aging);
+        assertTrue(scheduler.remove(first));
+        assertFalse(scheduler.remove(first));
+        assertEquals(List.of(2), scheduler.sortedSnapshot().stream().map(Order::getOrderId).toList());
+    }
+
+    @Test
+    public void reEnqueueRecomputesKeyUnderNewPolicy() {
+        Order order = order(1, 5, T0);
+        scheduler.enqueue(order, aging);
+        long agingKey = order.getQueueKey();
+        queue.remove(order);
+        ReflectionTestUtils.setField(aging, "agingMs", 1_000L);
+        scheduler.enqueue(order, aging);
+        assertNotEquals(agingKey, order.getQueueKey());
+        assertEquals(aging.queueKey(order), order.getQueueKey());
+    }
+
+    static Order order(int orderId, int priority, LocalDateTime createTime) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setPriority(priority);
+        order.setCreateTime(createTime);
+        return order;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Robot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 机器人内存状态表单元测试：空闲表预占/归还、选择策略、注销（不启动 Spring 容器，不回写数据库）
+ */
+public class RobotRegistryTest {
+
+    private RobotRegistry registry;
+    private final Order order = new Order();
+
+    @BeforeEach
+    public void setUp() {
+        registry = new RobotRegistry();
+        registry.load(robots(4));
+        order.setOrderId(1);
+    }
+
+    @Test
+    public void claimRemovesRobotUntilReturned() {
+        RandomRobotSelection random = new RandomRobotSelection();
+        Set<Integer> claimed = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            Robot robot = registry.claimFreeRobot(random, order);
+            assertNotNull(robot);
+            assertTrue(claimed.add(robot.getRobotId()));
+        }
+        assertNull(registry.claimFreeRobot(random, order));
+        assertEquals(0, registry.freeCount());
+
+        Robot any = registry.getRobot(3);
+        registry.unclaim(any);
+        assertEquals(1, registry.freeCount());
+        assertSame(any, registry.claimFreeRobot(random, order));
+    }
+
+    @Test
+    public void roundRobinTakesLongestIdleRobot() {
+        RoundRobinRobotSelection roundRobin = new RoundRobinRobotSelection();
+        List<Integer> visited = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Robot robot = registry.claimFreeRobot(roundRobin, order);
+            visited.add(robot.getRobotId());
+            registry.unclaim(robot); // 归还到队尾
+        }
+        assertEquals(List.of(1, 2, 3, 4, 1, 2), visited);
+    }
+
+    @Test
+    public void freeTableGrowsAndSurvivesMiddleRemoval() {
+        registry.load(robots(40)); // 超过初始容量 16
+        assertTrue(registry.deregister(10));
+        assertTrue(registry.deregister(25));
+        RoundRobinRobotSelection roundRobin = new RoundRobinRobotSelection();
+        Set<Integer> claimed = new HashSet<>();
+        Robot robot;
+        while ((robot = registry.claimFreeRobot(roundRobin, order)) != null) {
+            assertTrue(claimed.add(robot.getRobotId()));
+        }
+        assertEquals(38, claimed.size());
+        assertFalse(claimed.contains(10));
+        assertFalse(claimed.contains(25));
+    }
+
+    @Test
+    public void leastLoadedPicksFewestFinishedOrders() {
+        registry.getRobot(1).setFinishedOrders(5);
+        registry.getRobot(2).setFinishedOrders(1);
+        registry.getRobot(3).setFinishedOrders(1);
+        registry.getRobot(4).setFinishedOrders(3);
+        assertEquals(2, registry.claimFreeRobot(new LeastLoadedRobotSelection(), order).getRobotId());
+    }
+
+    @Test
+    public void busyRobotIsDeregisteredWhenItFinishes() {
+        assertTrue(registry.deregister(1)); // 空闲：立即移除
+        Robot busy = registry.claimFreeRobot(new LeastLoadedRobotSelection(), order); // 机器人 2
+        registry.markBusy(busy, order);
+        assertFalse(registry.deregister(busy.getRobotId()));
+        assertEquals(3, registry.size());
+        registry.markFree(busy, true);
+        assertEquals(2, registry.size());
+        assertNull(registry.getRobot(busy.getRobotId()));
+        assertEquals(2, registry.freeCount());
+        assertThrows(IllegalArgumentException.class, () -> registry.deregister(busy.getRobotId()));
+    }
+
+    @Test
+    public void fleetResizesAtRuntimeFor4To256Robots() {
+        for (int fleetSize : new int[]{4, 32, 256}) {
+            registry.load(robots(fleetSize));
+            // 运行中扩容一半、再注销原编队的一半
+            int added = fleetSize / 2;
+            for (int id = fleetSize + 1; id <= fleetSize + added; id++) {
+                Robot robot = new Robot();
+                robot.setRobotId(id);
+                robot.setRobotStatus(Robot.STATUS_FREE);
+                robot.setFinishedOrders(0);
+                registry.register(robot);
+            }
+            int removed = 0;
+            for (int id = 1; id <= fleetSize; id += 2) {
+                assertTrue(registry.deregister(id));
+                removed++;
+            }
+            int expected = fleetSize + added - removed;
+            assertEquals(expected, registry.size());
+            assertEquals(expected, registry.freeCount());
+
+            Set<Integer> claimed = new HashSet<>();
+            Robot robot;
+            while ((robot = registry.claimFreeRobot(new RandomRobotSelection(), order)) != null) {
+                assertTrue(claimed.add(robot.getRobotId()));
+                assertFalse(robot.getRobotId() <= fleetSize && robot.getRobotId() % 2 == 1); // 已注销的不会再被选中
+            }
+            assertEquals(expected, claimed.size());
+        }
+    }
+
+    static List<Robot> robots(int count) {
+        List<Robot> robots = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            Robot robot = new Robot();
+            robot.setRobotId(id);
+            robot.setRobotStatus(Robot.STATUS_FREE);
+            robot.setFinishedOrders(0);
+            robots.add(robot);
+        }
+        return robots;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.vo.RobotSelectionStatsVO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 机器人选择服务单元测试：按策略归档完成订单，派发失败的订单不留登记
+ */
+public class RobotSelectionServiceTest {
+
+    private RobotSelectionService selection;
+    private RobotRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new RobotRegistry();
+        registry.load(RobotRegistryTest.robots(2));
+        selection = new RobotSelectionService();
+        ReflectionTestUtils.setField(selection, "robotRegistry", registry);
+        ReflectionTestUtils.setField(selection, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(selection, "strategyBeans", List.of(new RandomRobotSelection(), new RoundRobinRobotSelection()));
+        ReflectionTestUtils.setField(selection, "defaultStrategy", "round-robin");
+        selection.init();
+    }
+
+    @Test
+    public void completionIsCountedForDispatchingStrategy() {
+        Order order = order(1);
+        assertNotNull(selection.claim(order));
+        selection.recordDispatch(order);
+        selection.recordCompletion(order);
+        assertEquals(1, statsOf("round-robin").getCompletedOrders());
+        assertEquals(0, statsOf(RandomRobotSelection.NAME).getCompletedOrders());
+    }
+
+    @Test
+    public void cancelledDispatchIsNotCountedOnLaterCompletion() {
+        Order order = order(1);
+        assertNotNull(selection.claim(order));
+        selection.recordDispatch(order);
+        selection.cancelDispatch(order); // 分配回滚
+        selection.recordCompletion(order);
+        assertEquals(0, statsOf("round-robin").getCompletedOrders());
+    }
+
+    private RobotSelectionStatsVO statsOf(String strategy) {
+        return selection.getStats().stream()
+                .filter(vo -> vo.getStrategy().equals(strategy))
+                .findFirst().orElseThrow();
+    }
+
+    private static Order order(int orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCreateTime(LocalDateTime.now());
+        return order;
+    }
+}
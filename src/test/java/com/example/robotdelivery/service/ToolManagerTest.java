@@ -0,0 +1,177 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Tools;
+import com.example.robotdelivery.pojo.Tools.ToolType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ToolManager 空闲池与整体预留（reserveAll）单元测试（不启动 Spring 容器，@Value 字段用反射赋值）
+ */
+public class ToolManagerTest {
+
+    private ToolManager toolManager;
+
+    @BeforeEach
+    public void setUp() {
+        toolManager = newToolManager(512);
+    }
+
+    // 2 个烤箱、2 个煎锅、1 个炸锅
+    static ToolManager newToolManager(int maxPerType) {
+        ToolManager manager = new ToolManager();
+        ReflectionTestUtils.setField(manager, "maxToolsPerType", maxPerType);
+        ReflectionTestUtils.setField(manager, "initialOvens", 2);
+        ReflectionTestUtils.setField(manager, "initialFryPans", 2);
+        ReflectionTestUtils.setField(manager, "initialFryPots", 1);
+        manager.initTools();
+        return manager;
+    }
+
+    @Test
+    public void initialPoolsMatchConfiguredCounts() {
+        assertEquals(2, toolManager.freeCount(ToolType.OVEN));
+        assertEquals(2, toolManager.freeCount(ToolType.FRY_PAN));
+        assertEquals(1, toolManager.freeCount(ToolType.FRY_POT));
+        assertEquals(2, toolManager.poolSize(ToolType.OVEN));
+        assertEquals(5, toolManager.getAllToolInstances().size());
+    }
+
+    @Test
+    public void acquireTakesFromPoolUntilEmpty() {
+        Tools first = toolManager.tryAcquire(ToolType.OVEN, 1);
+        Tools second = toolManager.tryAcquire(ToolType.OVEN, 2);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotSame(first, second);
+        assertEquals(ToolType.OVEN, first.getToolType());
+        assertEquals(Tools.STATUS_OCCUPIED, first.getToolStatus());
+        assertEquals(1, first.getOccupiedByRobotId());
+        assertEquals(0, toolManager.freeCount(ToolType.OVEN));
+        assertNull(toolManager.tryAcquire(ToolType.OVEN, 3));
+        // 其他类型不受影响
+        assertEquals(2, toolManager.freeCount(ToolType.FRY_PAN));
+    }
+
+    @Test
+    public void releaseReturnsToolAndDuplicateReleaseIsIgnored() {
+        Tools oven = toolManager.tryAcquire(ToolType.OVEN, 1);
+        toolManager.release(oven);
+        assertEquals(Tools.STATUS_FREE, oven.getToolStatus());
+        assertEquals(2, toolManager.freeCount(ToolType.OVEN));
+        toolManager.release(oven);
+        assertEquals(2, toolManager.freeCount(ToolType.OVEN));
+        assertNotNull(toolManager.tryAcquire(ToolType.OVEN, 2));
+    }
+
+    @Test
+    public void retiringFreeToolRemovesItImmediately() {
+        Tools pot = toolManager.tryAcquire(ToolType.FRY_POT, 1);
+        toolManager.release(pot);
+        assertTrue(toolManager.retireTool(pot.getToolId()));
+        assertEquals(0, toolManager.freeCount(ToolType.FRY_POT));
+        assertEquals(0, toolManager.poolSize(ToolType.FRY_POT));
+        assertNull(toolManager.findTool(pot.getToolId()));
+        assertNull(toolManager.tryAcquire(ToolType.FRY_POT, 1));
+    }
+
+    @Test
+    public void retiringBusyToolDrainsItOnRelease() {
+        Tools pot = toolManager.tryAcquire(ToolType.FRY_POT, 1);
+        assertFalse(toolManager.retireTool(pot.getToolId()));
+        assertEquals(1, toolManager.poolSize(ToolType.FRY_POT));
+        toolManager.release(pot);
+        assertEquals(0, toolManager.freeCount(ToolType.FRY_POT));
+        assertEquals(0, toolManager.poolSize(ToolType.FRY_POT));
+        assertNull(toolManager.findTool(pot.getToolId()));
+    }
+
+    @Test
+    public void retiredToolLeftInPoolIsNeverHandedOut() {
+        // 模拟退役与归还并发后残留在空闲池中的已退役工具
+        List<Tools> ovens = toolManager.addTools(ToolType.OVEN, 1);
+        ovens.get(0).setRetired(true);
+        int handedOut = 0;
+        Tools tool;
+        while ((tool = toolManager.tryAcquire(ToolType.OVEN, 1)) != null) {
+            assertFalse(tool.isRetired());
+            handedOut++;
+        }
+        assertEquals(2, handedOut);
+        assertNull(toolManager.findTool(ovens.get(0).getToolId()));
+    }
+
+    @Test
+    public void retiredSlotIsReusedByNewTool() {
+        Tools pot = toolManager.tryAcquire(ToolType.FRY_POT, 1);
+        toolManager.release(pot);
+        toolManager.retireTool(pot.getToolId());
+        Tools added = toolManager.addTools(ToolType.FRY_POT, 1).get(0);
+        assertEquals(1, toolManager.poolSize(ToolType.FRY_POT));
+        assertSame(added, toolManager.tryAcquire(ToolType.FRY_POT, 2));
+    }
+
+    @Test
+    public void reserveAllTakesOneToolOfEachType() {
+        EnumMap<ToolType, Tools> tools = toolManager.reserveAll(EnumSet.of(ToolType.OVEN, ToolType.FRY_POT), 7);
+        assertNotNull(tools);
+        assertEquals(EnumSet.of(ToolType.OVEN, ToolType.FRY_POT), tools.keySet());
+        assertEquals(7, tools.get(ToolType.OVEN).getOccupiedByRobotId());
+        assertEquals(7, tools.get(ToolType.FRY_POT).getOccupiedByRobotId());
+        assertEquals(1, toolManager.freeCount(ToolType.OVEN));
+        assertEquals(0, toolManager.freeCount(ToolType.FRY_POT));
+        assertEquals(2, toolManager.freeCount(ToolType.FRY_PAN));
+    }
+
+    @Test
+    public void reserveAllTakesNothingWhenAnyTypeIsExhausted() {
+        Tools pot = toolManager.tryAcquire(ToolType.FRY_POT, 1);
+        assertNull(toolManager.reserveAll(EnumSet.of(ToolType.OVEN, ToolType.FRY_PAN, ToolType.FRY_POT), 2));
+        // 已扣减的烤箱、煎锅名额全部退回，工具状态未被触碰
+        assertEquals(2, toolManager.freeCount(ToolType.OVEN));
+        assertEquals(2, toolManager.freeCount(ToolType.FRY_PAN));
+        for (Tools tool : toolManager.getAllToolInstances()) {
+            if (tool != pot) {
+                assertEquals(Tools.STATUS_FREE, tool.getToolStatus());
+            }
+        }
+    }
+
+    @Test
+    public void reserveAllRollsBackWhenOnlyRetiredToolIsLeft() {
+        Tools pot = toolManager.getAllToolInstances().stream()
+                .filter(tool -> tool.getToolType() == ToolType.FRY_POT)
+                .findFirst().orElseThrow();
+        pot.setRetired(true); // 模拟残留在空闲池中的已退役炸锅
+        assertNull(toolManager.reserveAll(EnumSet.of(ToolType.OVEN, ToolType.FRY_POT), 1));
+        assertEquals(2, toolManager.freeCount(ToolType.OVEN));
+        assertEquals(0, toolManager.freeCount(ToolType.FRY_POT));
+        assertEquals(0, toolManager.poolSize(ToolType.FRY_POT));
+        assertNotNull(toolManager.reserveAll(EnumSet.of(ToolType.OVEN, ToolType.FRY_PAN), 1));
+    }
+
+    @Test
+    public void reserveAllWithNoTypesSucceedsEmpty() {
+        EnumMap<ToolType, Tools> tools = toolManager.reserveAll(EnumSet.noneOf(ToolType.class), 1);
+        assertNotNull(tools);
+        assertTrue(tools.isEmpty());
+    }
+
+    @Test
+    public void addingBeyondSlotLimitFails() {
+        ToolManager small = newToolManager(2);
+        assertThrows(IllegalStateException.class, () -> small.addTools(ToolType.OVEN, 1));
+    }
+
+    @Test
+    public void retiringUnknownToolFails() {
+        assertThrows(IllegalArgumentException.class, () -> toolManager.retireTool(-1));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Partition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 工作台分配器单元测试：空闲链表分配器的切分/合并/整理，伙伴分配器的取整与伙伴合并
+ */
+public class WorkbenchAllocatorTest {
+
+    @Test
+    public void createResolvesConfiguredNames() {
+        assertTrue(WorkbenchAllocator.create(FreeListAllocator.NAME, "best") instanceof FreeListAllocator);
+        assertTrue(WorkbenchAllocator.create(BuddyAllocator.NAME, "best") instanceof BuddyAllocator);
+        assertThrows(IllegalArgumentException.class, () -> WorkbenchAllocator.create("segregated", "best"));
+    }
+
+    @Test
+    public void freeListSplitsBlockOnAllocate() {
+        FreeListAllocator allocator = newFreeList(100);
+        Partition block = allocator.allocate(1, 30, "炒饭");
+        assertEquals(0, block.getStartAddress());
+        assertEquals(30, block.getSize());
+        assertEquals(30, allocator.getUsedSpace());
+        assertEquals(70, allocator.getLargestFreeBlock());
+        assertEquals(2, allocator.getPartitions().size());
+        assertTrue(allocator.isAllocated(1));
+    }
+
+    @Test
+    public void freeListCoalescesWithBothNeighbours() {
+        FreeListAllocator allocator = newFreeList(100);
+        allocator.allocate(1, 30, "a");
+        allocator.allocate(2, 30, "b");
+        allocator.allocate(3, 30, "c");
+        assertTrue(allocator.release(1));
+        assertTrue(allocator.release(3)); // 与末尾 10 的空闲块合并
+        assertEquals(40, allocator.getLargestFreeBlock());
+        assertEquals(3, allocator.getPartitions().size());
+        assertTrue(allocator.release(2)); // 与前后两个空闲块合并
+        assertEquals(0, allocator.getUsedSpace());
+        assertEquals(100, allocator.getLargestFreeBlock());
+        assertEquals(1, allocator.getPartitions().size());
+    }
+
+    @Test
+    public void freeListRejectsOversizedAndUnknownRequests() {
+        FreeListAllocator allocator = newFreeList(100);
+        allocator.allocate(1, 60, "a");
+        assertNull(allocator.allocate(2, 41, "b"));
+        assertFalse(allocator.release(99));
+        assertFalse(allocator.isAllocated(2));
+    }
+
+    @Test
+    public void freeListCompactStepMovesAtMostMaxMoves() {
+        FreeListAllocator allocator = newFreeList(100);
+        allocator.allocate(1, 20, "a");
+        Partition b = allocator.allocate(2, 20, "b");
+        Partition c = allocator.allocate(3, 20, "c");
+        allocator.release(1);
+        assertEquals(1, allocator.compactStep(1));
+        assertEquals(0, b.getStartAddress());
+        assertEquals(40, c.getStartAddress());
+        assertEquals(40, allocator.getLargestFreeBlock());
+        assertEquals(1, allocator.compactStep(5)); // 只剩 c 需要下移
+        assertEquals(20, c.getStartAddress());
+        assertEquals(60, allocator.getLargestFreeBlock());
+        assertEquals(0, allocator.compactStep(5));
+        assertPartitionsTile(allocator.getPartitions(), 100);
+    }
+
+    @Test
+    public void buddySplitsTotalSpaceIntoAlignedTopBlocks() {
+        BuddyAllocator allocator = newBuddy(100); // 64 + 32 + 4
+        assertEquals(64, allocator.getLargestFreeBlock());
+        assertEquals(3, allocator.getPartitions().size());
+        assertPartitionsTile(allocator.getPartitions(), 100);
+    }
+
+    @Test
+    public void buddyRoundsUpToPowerOfTwoFromSmallestOrder() {
+        BuddyAllocator allocator = newBuddy(100);
+        Partition block = allocator.allocate(1, 10, "a");
+        // 最小可用阶为 32@64，拆成 16@64 + 16@80
+        assertEquals(16, block.getSize());
+        assertEquals(64, block.getStartAddress());
+        assertEquals(16, allocator.getUsedSpace());
+        assertEquals(64, allocator.getLargestFreeBlock());
+        assertNull(allocator.allocate(2, 65, "b"));
+    }
+
+    @Test
+    public void buddyMergesOnlyWithFreeBuddy() {
+        BuddyAllocator allocator = newBuddy(64);
+        allocator.allocate(1, 16, "a"); // 0
+        allocator.allocate(2, 16, "b"); // 16
+        assertEquals(32, allocator.getLargestFreeBlock());
+        assertTrue(allocator.release(1));
+        assertEquals(32, allocator.getLargestFreeBlock()); // 伙伴 16@16 仍被占用
+        assertTrue(allocator.release(2));
+        assertEquals(64, allocator.getLargestFreeBlock());
+        assertEquals(1, allocator.getPartitions().size());
+        assertEquals(0, allocator.getUsedSpace());
+        assertFalse(allocator.release(2));
+    }
+
+    private static FreeListAllocator newFreeList(int totalSpace) {
+        FreeListAllocator allocator = new FreeListAllocator();
+        allocator.init(totalSpace);
+        return allocator;
+    }
+
+    private static BuddyAllocator newBuddy(int totalSpace) {
+        BuddyAllocator allocator = new BuddyAllocator();
+        allocator.init(totalSpace);
+        return allocator;
+    }
+
+    // 分区按地址首尾相接、无重叠，覆盖全部空间
+    private static void assertPartitionsTile(List<Partition> partitions, int totalSpace) {
+        int next = 0;
+        for (Partition partition : partitions) {
+            assertEquals(next, partition.getStartAddress());
+            next += partition.getSize();
+        }
+        assertEquals(totalSpace, next);
+    }
+}
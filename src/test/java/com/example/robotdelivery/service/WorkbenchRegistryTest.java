@@ -0,0 +1,98 @@
+package com.example.robotdelivery.service;
+
+import com.example.robotdelivery.pojo.Dish;
+import com.example.robotdelivery.pojo.Order;
+import com.example.robotdelivery.pojo.Robot;
+import com.example.robotdelivery.pojo.WorkbenchSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多工作台注册表单元测试：同一订单的预留、正式分配、释放、预留到期之间的登记一致性，以及工作台快照
+ */
+public class WorkbenchRegistryTest {
+
+    private WorkbenchRegistry registry;
+    private final Robot robot = new Robot();
+
+    @BeforeEach
+    public void setUp() {
+        registry = new WorkbenchRegistry();
+        ReflectionTestUtils.setField(registry, "workbenchCount", 2);
+        ReflectionTestUtils.setField(registry, "workbenchSize", 100);
+        ReflectionTestUtils.setField(registry, "allocatorName", FreeListAllocator.NAME);
+        ReflectionTestUtils.setField(registry, "placementName", "best");
+        ReflectionTestUtils.setField(registry, "compactMaxMoves", 2);
+        ReflectionTestUtils.setField(registry, "compactThreshold", 0.3);
+        registry.init();
+        robot.setRobotId(1); // 本地工作台为 1 号
+    }
+
+    @Test
+    public void allocationOverflowsToNeighbourAndIsNotRepeated() {
+        Order big = order(1, 80);
+        assertSame(registry.getWorkbenches().get(0), registry.allocateForOrder(robot, big));
+        MemoryManager overflow = registry.allocateForOrder(robot, order(2, 50));
+        assertSame(registry.getWorkbenches().get(1), overflow);
+        // 同一订单重复分配被拒绝，原登记不受影响
+        assertNull(registry.allocateForOrder(robot, big));
+        assertTrue(registry.releaseOrderPartition(1));
+        assertFalse(registry.releaseOrderPartition(1));
+        assertEquals(50, registry.getUsedSpace());
+    }
+
+    @Test
+    public void reservationIsConsumedByAllocation() {
+        Order order = order(1, 30);
+        assertTrue(registry.reserve(order, Long.MAX_VALUE));
+        assertFalse(registry.reserve(order, Long.MAX_VALUE)); // 已有预留
+        assertTrue(registry.hasReservation(1));
+        assertNotNull(registry.allocateForOrder(robot, order));
+        assertFalse(registry.hasReservation(1));
+        assertEquals(30, registry.getUsedSpace());
+        assertFalse(registry.reserve(order, Long.MAX_VALUE)); // 已正式分配
+    }
+
+    @Test
+    public void releaseAndExpiryDropReservations() {
+        assertTrue(registry.reserve(order(1, 30), Long.MAX_VALUE));
+        assertTrue(registry.releaseOrderPartition(1));
+        assertFalse(registry.hasReservation(1));
+        assertTrue(registry.reserve(order(2, 30), 1000));
+        assertEquals(List.of(2), registry.expireReservations(1000));
+        assertFalse(registry.hasReservation(2));
+        assertEquals(0, registry.getUsedSpace());
+    }
+
+    @Test
+    public void snapshotCopiesPartitionsOncePerVersionWithGlobalAddresses() {
+        MemoryManager second = registry.getWorkbenches().get(1);
+        assertTrue(second.allocateForOrder(order(1, 30)));
+        WorkbenchSnapshot snapshot = second.getSnapshot();
+        assertSame(snapshot, second.getSnapshot()); // 同一版本只复制一次
+        assertEquals(100, snapshot.getPartitions().get(0).getStartAddress()); // 第 2 个工作台基址 100
+        assertEquals(1, snapshot.getPartitions().get(0).getOrderId());
+        assertEquals(70, second.getFreeSpace());
+
+        assertTrue(second.releaseOrderPartition(1));
+        WorkbenchSnapshot next = second.getSnapshot();
+        assertTrue(next.getVersion() > snapshot.getVersion());
+        assertEquals(1, next.getPartitions().size());
+        assertEquals(2, snapshot.getPartitions().size()); // 旧快照不受影响
+    }
+
+    private static Order order(int orderId, int requiredSpace) {
+        Dish dish = new Dish();
+        dish.setDishName("dish" + orderId);
+        dish.setRequiredSpace(requiredSpace);
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setDish(dish);
+        return order;
+    }
+}